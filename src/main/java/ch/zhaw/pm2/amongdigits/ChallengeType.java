@@ -9,6 +9,9 @@ public enum ChallengeType {
   /** User-generated Sudoku challenges. */
   USER_GENERATED("sudokus/upload");
 
+  /** The file ending of the file lists of the challenge directories. */
+  public static final String FILE_LIST_ENDING = ".list";
+
   private final String directory;
 
   /**
@@ -28,4 +31,14 @@ public enum ChallengeType {
   public String getDirectory() {
     return directory;
   }
+
+  /**
+   * Returns the resource that lists the names of the files in the directory, one per line. Unlike
+   * the directory, the list can also be read when the resources are packed into a jar.
+   *
+   * @return The resource name of the file list.
+   */
+  public String getFileList() {
+    return directory + FILE_LIST_ENDING;
+  }
 }
@@ -7,24 +7,26 @@ import java.util.Comparator;
 public enum DifficultyLevel implements Comparable<DifficultyLevel> {
 
   /** Beginner difficulty level. */
-  BEGINNER("beginner", 25, 2, 600),
+  BEGINNER("beginner", 25, 2, 600, 25, 31),
 
   /** Easy difficulty level. */
-  EASY("easy", 32, 4, 1200),
+  EASY("easy", 32, 4, 1200, 32, 44),
 
   /** Medium difficulty level. */
-  MEDIUM("medium", 40, 6, 2400),
+  MEDIUM("medium", 40, 6, 2400, 45, 69),
 
   /** Hard difficulty level. */
-  HARD("hard", 53, 8, 3600),
+  HARD("hard", 53, 8, 3600, 70, 129),
 
   /** Expert difficulty level. */
-  EXPERT("expert", 64, 10, 7200);
+  EXPERT("expert", 64, 10, 7200, 130, Integer.MAX_VALUE);
 
   private final String translationProperty;
   private final int maxNumbersToClear;
   private final int maxErrorsToSolve;
   private final int maxSecondsToSolve;
+  private final int minRating;
+  private final int maxRating;
 
   /**
    * Constructs a DifficultyLevel enum constant with the specified properties.
@@ -33,16 +35,22 @@ public enum DifficultyLevel implements Comparable<DifficultyLevel> {
    * @param maxNumbersToClear The maximum number of numbers to clear in the Sudoku grid.
    * @param maxErrorsToSolve The maximum number of errors allowed to solve the Sudoku.
    * @param maxSecondsToSolve The maximum number of seconds allowed to solve the Sudoku.
+   * @param minRating The minimum solving effort rating of a Sudoku of this difficulty level.
+   * @param maxRating The maximum solving effort rating of a Sudoku of this difficulty level.
    */
   DifficultyLevel(
       String translationProperty,
       int maxNumbersToClear,
       int maxErrorsToSolve,
-      int maxSecondsToSolve) {
+      int maxSecondsToSolve,
+      int minRating,
+      int maxRating) {
     this.translationProperty = translationProperty;
     this.maxNumbersToClear = maxNumbersToClear;
     this.maxErrorsToSolve = maxErrorsToSolve;
     this.maxSecondsToSolve = maxSecondsToSolve;
+    this.minRating = minRating;
+    this.maxRating = maxRating;
   }
 
   /**
@@ -107,6 +115,24 @@ public enum DifficultyLevel implements Comparable<DifficultyLevel> {
     return maxSecondsToSolve;
   }
 
+  /**
+   * Returns the minimum solving effort rating of a Sudoku of this difficulty level.
+   *
+   * @return The minimum rating.
+   */
+  public int getMinRating() {
+    return minRating;
+  }
+
+  /**
+   * Returns the maximum solving effort rating of a Sudoku of this difficulty level.
+   *
+   * @return The maximum rating.
+   */
+  public int getMaxRating() {
+    return maxRating;
+  }
+
   /**
    * A comparator implementation used to compare DifficultyLevel objects based on their
    * maxNumbersToClear property.
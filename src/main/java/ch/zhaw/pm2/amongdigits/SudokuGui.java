@@ -13,6 +13,10 @@ import static javafx.scene.media.MediaPlayer.INDEFINITE;
 import ch.zhaw.pm2.amongdigits.controller.SudokuGameController;
 import ch.zhaw.pm2.amongdigits.exception.InvalidFileFormatException;
 import ch.zhaw.pm2.amongdigits.exception.InvalidSudokuException;
+import ch.zhaw.pm2.amongdigits.exception.SudokuUnavailableException;
+import ch.zhaw.pm2.amongdigits.pool.PoolRefiller;
+import ch.zhaw.pm2.amongdigits.pool.PuzzlePool;
+import ch.zhaw.pm2.amongdigits.utils.EngineWarmUp;
 import ch.zhaw.pm2.amongdigits.utils.PropertiesHandler;
 import ch.zhaw.pm2.amongdigits.utils.alert.AlertBuilder;
 import ch.zhaw.pm2.amongdigits.utils.alert.AlertOptions;
@@ -39,14 +43,18 @@ import lombok.extern.slf4j.Slf4j;
 public class SudokuGui extends Application {
 
   private static final String LANGUAGE = "language";
+  private static final String WARM_UP = "warmUp";
   private static final double GAME_MUSIC_VOLUME = 0.2;
   private final Map<ScreenType, Parent> screens = new EnumMap<>(ScreenType.class);
   private Scene scene;
   private MediaPlayer mainMenuMediaPlayer;
   private MediaPlayer gameMediaPlayer;
+  private PoolRefiller poolRefiller;
 
   /**
-   * Starts the Sudoku game GUI by initializing the music players and loading the screens.
+   * Starts the Sudoku game GUI by initializing the music players and loading the screens. The
+   * stock of pre-generated puzzles is loaded and refilled in the background while the main menu is
+   * showing. Unless the warmUp setting is false, the puzzle engine is warmed up in the background.
    *
    * @param primaryStage The primary stage for the application.
    */
@@ -57,6 +65,11 @@ public class SudokuGui extends Application {
     } catch (URISyntaxException e) {
       log.error("Error loading menu music");
     }
+    if (!"false".equals(PropertiesHandler.getPropertyString(SETTINGS, WARM_UP))) {
+      EngineWarmUp.start();
+    }
+    poolRefiller = new PoolRefiller(PuzzlePool.getDefault(), PoolRefiller.DEFAULT_CAPACITY);
+    poolRefiller.resume();
     EnumSet.allOf(ScreenType.class).forEach(this::loadScreen);
     mainWindow(primaryStage);
     setStyleSheet(
@@ -101,7 +114,9 @@ public class SudokuGui extends Application {
     if (screenType == MAIN_MENU) {
       gameMediaPlayer.stop();
       mainMenuMediaPlayer.play();
+      poolRefiller.resume();
     } else if (screenType == SUDOKU) {
+      poolRefiller.pause();
       mainMenuMediaPlayer.stop();
       gameMediaPlayer.play();
     }
@@ -179,7 +194,10 @@ public class SudokuGui extends Application {
 
       screens.put(SUDOKU, loadScreen);
       changeScreenTo(SUDOKU);
-    } catch (IOException | InvalidFileFormatException | InvalidSudokuException e) {
+    } catch (IOException
+        | InvalidFileFormatException
+        | InvalidSudokuException
+        | SudokuUnavailableException e) {
       log.error(format("Error loading sudoku %s: %s", parameter, e.getMessage()));
       AlertBuilder.showAlert(
           new AlertOptions(
@@ -0,0 +1,358 @@
+package ch.zhaw.pm2.amongdigits.catalog;
+
+import static ch.zhaw.pm2.amongdigits.utils.SudokuConstants.EMPTY_GRID_CELL;
+import static ch.zhaw.pm2.amongdigits.utils.SudokuConstants.FILE_AREA_NAME_SEPARATOR;
+import static ch.zhaw.pm2.amongdigits.utils.SudokuConstants.GRID_SEPARATOR;
+import static ch.zhaw.pm2.amongdigits.utils.SudokuConstants.SUDOKU_GRID_SIZE;
+import static ch.zhaw.pm2.amongdigits.utils.SudokuConstants.VALID_FILE_ENDING;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import ch.zhaw.pm2.amongdigits.ChallengeType;
+import ch.zhaw.pm2.amongdigits.DifficultyLevel;
+import ch.zhaw.pm2.amongdigits.SudokuBoard;
+import ch.zhaw.pm2.amongdigits.upload.SudokuFileWriter;
+import ch.zhaw.pm2.amongdigits.utils.Canonicalizer;
+import ch.zhaw.pm2.amongdigits.utils.Creator;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A headless entry point that generates a catalog of Sudoku puzzles for every {@link
+ * DifficultyLevel} on all available cores and writes them as text files into a directory, using
+ * the format and naming of the pre-generated challenges. Puzzles already present in the directory
+ * or generated twice within a run are skipped, also if they only differ by relabeled digits or
+ * permuted lines. Throughput and latency percentiles are logged when the catalog is complete, the
+ * latency of a puzzle including the time spent on the duplicates generated before it.
+ *
+ * <p>With a {@link GenerationCoordinator}, the puzzles are generated by the {@link
+ * GenerationWorker}s connected to it instead, so a catalog can be built on several machines.
+ */
+@Slf4j
+public class CatalogBuilder {
+
+  private static final String CATALOG_NAME = "Catalog ";
+  private static final String DEFAULT_DIRECTORY =
+      "src/main/resources/" + ChallengeType.PRE_GENERATED.getDirectory();
+  private static final int DEFAULT_COUNT_PER_LEVEL = 10;
+  private static final int REMOTE_JOBS_IN_FLIGHT = 256;
+  private static final int MAX_DUPLICATE_ATTEMPTS = 100;
+  private static final int[] PERCENTILES = {50, 90, 99};
+
+  private final Path outputDirectory;
+  private final int countPerLevel;
+  private final int threads;
+  private final long seed;
+  private final GenerationCoordinator coordinator;
+  private final Set<String> knownGrids = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Constructs a new CatalogBuilder.
+   *
+   * @param outputDirectory the directory to write the puzzle files into
+   * @param countPerLevel the number of puzzles to generate per difficulty level
+   * @param threads the number of threads to generate puzzles on
+   * @param seed the seed all puzzle seeds of the run are derived from
+   */
+  public CatalogBuilder(
+      final Path outputDirectory, final int countPerLevel, final int threads, final long seed) {
+    this(outputDirectory, countPerLevel, threads, seed, null);
+  }
+
+  /**
+   * Constructs a new CatalogBuilder that generates its puzzles with the workers of a coordinator.
+   *
+   * @param outputDirectory the directory to write the puzzle files into
+   * @param countPerLevel the number of puzzles to generate per difficulty level
+   * @param threads the number of puzzles to generate at the same time
+   * @param seed the seed all puzzle seeds of the run are derived from
+   * @param coordinator the coordinator to generate the puzzles with, or null to generate them in
+   *     this process
+   */
+  public CatalogBuilder(
+      final Path outputDirectory,
+      final int countPerLevel,
+      final int threads,
+      final long seed,
+      final GenerationCoordinator coordinator) {
+    if (countPerLevel < 0) {
+      throw new IllegalArgumentException("Count per level must not be negative");
+    }
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Thread count must be greater than zero");
+    }
+    this.outputDirectory = outputDirectory;
+    this.countPerLevel = countPerLevel;
+    this.threads = threads;
+    this.seed = seed;
+    this.coordinator = coordinator;
+  }
+
+  /**
+   * Builds a catalog from the command line. The optional arguments are the number of puzzles per
+   * difficulty level, the output directory, the seed and a port, in this order. With a port, the
+   * puzzles are generated by the workers that connect to a coordinator on that port, see {@link
+   * GenerationWorker#main(String[])}.
+   *
+   * @param args The command line arguments.
+   */
+  public static void main(String[] args) {
+    final int countPerLevel = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_COUNT_PER_LEVEL;
+    final Path directory = Paths.get(args.length > 1 ? args[1] : DEFAULT_DIRECTORY);
+    final long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+
+    try {
+      if (args.length > 3) {
+        try (GenerationCoordinator coordinator =
+            new GenerationCoordinator(Integer.parseInt(args[3]))) {
+          log.info("Waiting for workers on port {}", coordinator.getPort());
+          new CatalogBuilder(directory, countPerLevel, REMOTE_JOBS_IN_FLIGHT, seed, coordinator)
+              .build();
+        }
+      } else {
+        new CatalogBuilder(
+                directory, countPerLevel, Runtime.getRuntime().availableProcessors(), seed)
+            .build();
+      }
+    } catch (IOException e) {
+      log.error("Error building catalog: {}", e.getMessage());
+      System.exit(1);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.error("Catalog build interrupted");
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Generates the puzzles of all difficulty levels and writes them into the output directory. The
+   * names of all puzzle files in the directory are then listed in a file next to it, see {@link
+   * ChallengeType#getFileList()}.
+   *
+   * @return the number of puzzle files written
+   * @throws IOException if the output directory cannot be read or a file cannot be written
+   * @throws InterruptedException if the thread is interrupted while waiting for the generators
+   */
+  public int build() throws IOException, InterruptedException {
+    Files.createDirectories(outputDirectory);
+    loadExistingGrids();
+
+    final SplittableRandom random = new SplittableRandom(seed);
+    final Map<DifficultyLevel, List<Future<Long>>> futures = new EnumMap<>(DifficultyLevel.class);
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    final long start = System.nanoTime();
+    try {
+      for (DifficultyLevel difficultyLevel : DifficultyLevel.values()) {
+        List<Future<Long>> levelFutures = new ArrayList<>(countPerLevel);
+        for (int index = 1; index <= countPerLevel; index++) {
+          final int puzzleIndex = index;
+          final long puzzleSeed = random.nextLong();
+          levelFutures.add(
+              executor.submit(() -> generate(difficultyLevel, puzzleIndex, puzzleSeed)));
+        }
+        futures.put(difficultyLevel, levelFutures);
+      }
+
+      final int written = report(futures, start);
+      writeFileList();
+      return written;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private long generate(final DifficultyLevel difficultyLevel, final int index, final long seed)
+      throws InterruptedException {
+    final SplittableRandom retryRandom = new SplittableRandom(seed);
+    long puzzleSeed = seed;
+    // Measured from the first attempt, as the discarded duplicates are part of the cost.
+    final long start = System.nanoTime();
+    for (int attempt = 0; attempt < MAX_DUPLICATE_ATTEMPTS; attempt++) {
+      final SudokuBoard sudokuBoard = generateBoard(difficultyLevel, puzzleSeed);
+
+      if (knownGrids.add(toKey(sudokuBoard.unsolvedGrid()))) {
+        final long latency = System.nanoTime() - start;
+        write(sudokuBoard, index, puzzleSeed);
+        return latency;
+      }
+      puzzleSeed = retryRandom.nextLong();
+    }
+
+    log.warn("No new {} puzzle found for catalog entry {}", difficultyLevel, index);
+    return -1;
+  }
+
+  private SudokuBoard generateBoard(final DifficultyLevel difficultyLevel, final long seed)
+      throws InterruptedException {
+    if (coordinator == null) {
+      return Creator.generate(difficultyLevel, seed).toSudokuBoard();
+    }
+    try {
+      return coordinator.submitGeneration(difficultyLevel, seed).get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException ioException) {
+        throw new UncheckedIOException(ioException);
+      }
+      throw new IllegalStateException("Puzzle generation failed on a worker", e.getCause());
+    }
+  }
+
+  private void write(final SudokuBoard sudokuBoard, final int index, final long puzzleSeed) {
+    final String fileName =
+        sudokuBoard.difficultyLevel().name()
+            + FILE_AREA_NAME_SEPARATOR
+            + CATALOG_NAME
+            + index
+            + FILE_AREA_NAME_SEPARATOR
+            + Long.toHexString(puzzleSeed)
+            + "."
+            + VALID_FILE_ENDING;
+    try (BufferedWriter bufferedWriter =
+        Files.newBufferedWriter(outputDirectory.resolve(fileName), UTF_8, CREATE_NEW, WRITE)) {
+      new SudokuFileWriter(GRID_SEPARATOR, EMPTY_GRID_CELL).write(sudokuBoard, bufferedWriter);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** Lists all puzzle files of the directory next to it, as the game reads the catalog. */
+  private void writeFileList() throws IOException {
+    final List<String> fileNames;
+    try (Stream<Path> files = Files.list(outputDirectory)) {
+      fileNames =
+          files
+              .map(file -> file.getFileName().toString())
+              .filter(fileName -> fileName.endsWith(VALID_FILE_ENDING))
+              .sorted()
+              .toList();
+    }
+    Files.write(
+        outputDirectory.resolveSibling(
+            outputDirectory.getFileName() + ChallengeType.FILE_LIST_ENDING),
+        fileNames,
+        UTF_8);
+  }
+
+  private void loadExistingGrids() throws IOException {
+    try (Stream<Path> files = Files.list(outputDirectory)) {
+      for (Path file : files.filter(path -> path.toString().endsWith(VALID_FILE_ENDING)).toList()) {
+        final byte[][] grid = new byte[SUDOKU_GRID_SIZE][SUDOKU_GRID_SIZE];
+        int row = 0;
+        for (String line : Files.readAllLines(file, UTF_8)) {
+          final String trimmedLine = line.trim();
+          if (trimmedLine.equals(String.valueOf(GRID_SEPARATOR)) || row == SUDOKU_GRID_SIZE) {
+            break;
+          }
+          if (!trimmedLine.isEmpty()) {
+            parseRow(trimmedLine, grid[row++]);
+          }
+        }
+        knownGrids.add(toKey(grid));
+      }
+    }
+  }
+
+  private static void parseRow(final String line, final byte[] row) {
+    for (int column = 0; column < Math.min(line.length(), row.length); column++) {
+      final char cell = line.charAt(column);
+      row[column] = Character.isDigit(cell) ? (byte) Character.getNumericValue(cell) : 0;
+    }
+  }
+
+  private static String toKey(final byte[][] grid) {
+    final StringBuilder key = new StringBuilder();
+    for (byte[] row : Canonicalizer.canonicalize(grid)) {
+      for (byte cell : row) {
+        key.append(cell == 0 ? EMPTY_GRID_CELL : (char) ('0' + cell));
+      }
+    }
+    return key.toString();
+  }
+
+  private int report(final Map<DifficultyLevel, List<Future<Long>>> futures, final long start)
+      throws IOException, InterruptedException {
+    int written = 0;
+    for (Map.Entry<DifficultyLevel, List<Future<Long>>> entry : futures.entrySet()) {
+      final long[] latencies = new long[entry.getValue().size()];
+      int count = 0;
+      for (Future<Long> future : entry.getValue()) {
+        long latency = await(future);
+        if (latency >= 0) {
+          latencies[count++] = latency;
+        }
+      }
+      written += count;
+
+      final long[] sorted = Arrays.copyOf(latencies, count);
+      Arrays.sort(sorted);
+      final StringBuilder percentiles = new StringBuilder();
+      for (int percentile : PERCENTILES) {
+        percentiles
+            .append(" p")
+            .append(percentile)
+            .append('=')
+            .append(toMillis(percentile(sorted, percentile)))
+            .append("ms");
+      }
+      log.info(
+          "{}: {} puzzles,{} max={}ms",
+          entry.getKey(),
+          count,
+          percentiles,
+          toMillis(count == 0 ? 0 : sorted[count - 1]));
+    }
+
+    final double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+    log.info(
+        "Wrote {} puzzles to {} in {}s on {} ({} puzzles/s)",
+        written,
+        outputDirectory,
+        String.format("%.2f", seconds),
+        coordinator == null ? threads + " threads" : coordinator.getWorkerCount() + " workers",
+        String.format("%.1f", seconds == 0 ? 0 : written / seconds));
+    return written;
+  }
+
+  private static long await(final Future<Long> future) throws IOException, InterruptedException {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof UncheckedIOException uncheckedIOException) {
+        throw uncheckedIOException.getCause();
+      }
+      throw new IllegalStateException("Puzzle generation failed", e.getCause());
+    }
+  }
+
+  private static long percentile(final long[] sorted, final int percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+    return sorted[Math.max(0, rank - 1)];
+  }
+
+  private static String toMillis(final long nanos) {
+    return String.format("%.2f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+  }
+}
@@ -0,0 +1,389 @@
+package ch.zhaw.pm2.amongdigits.catalog;
+
+import static ch.zhaw.pm2.amongdigits.catalog.WorkerProtocol.ERROR;
+import static ch.zhaw.pm2.amongdigits.catalog.WorkerProtocol.GENERATE;
+import static ch.zhaw.pm2.amongdigits.catalog.WorkerProtocol.HELLO;
+import static ch.zhaw.pm2.amongdigits.catalog.WorkerProtocol.RESULT;
+import static ch.zhaw.pm2.amongdigits.catalog.WorkerProtocol.SEPARATOR;
+import static ch.zhaw.pm2.amongdigits.catalog.WorkerProtocol.VALIDATE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import ch.zhaw.pm2.amongdigits.DifficultyLevel;
+import ch.zhaw.pm2.amongdigits.SudokuBoard;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Distributes puzzle generation and validation jobs to {@link GenerationWorker}s in other
+ * processes, which connect to the coordinator over TCP and speak the {@link WorkerProtocol}.
+ *
+ * <p>Jobs are queued until a worker has credit for them. A worker announces its credit when it
+ * connects and regains one credit per result, so it never holds more jobs than it accepted, and all
+ * jobs it has credit for are sent in one batch. If a worker disconnects, or holds jobs without
+ * returning a result for longer than the job timeout, it is dropped and its unfinished jobs are
+ * queued again in front of the others and picked up by the remaining workers. A job that has been
+ * lost with {@value #MAX_ATTEMPTS} workers fails.
+ *
+ * <p>At most the queue capacity of jobs wait for a worker, submitting another job blocks until a
+ * worker takes one, so a producer cannot queue without limit.
+ */
+@Slf4j
+public class GenerationCoordinator implements Closeable {
+
+  /** The number of workers a job may be sent to before it fails. */
+  public static final int MAX_ATTEMPTS = 3;
+
+  /** The number of jobs that may wait for a worker if no other capacity is given. */
+  public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+  /** The time a worker may hold jobs without returning a result if no other timeout is given. */
+  public static final Duration DEFAULT_JOB_TIMEOUT = Duration.ofMinutes(1);
+
+  private final ServerSocket serverSocket;
+  private final BlockingDeque<Job> jobs = new LinkedBlockingDeque<>();
+  private final Semaphore queueSlots;
+  private final long jobTimeoutNanos;
+  private final Thread watchdogThread;
+  private final Set<WorkerConnection> connections = ConcurrentHashMap.newKeySet();
+  private final AtomicLong nextId = new AtomicLong();
+  private volatile boolean isClosed;
+
+  /**
+   * Constructs a new GenerationCoordinator with the default queue capacity and job timeout and
+   * starts accepting workers on the given port.
+   *
+   * @param port the port to listen on, or 0 for any free port
+   * @throws IOException if the port cannot be opened
+   */
+  public GenerationCoordinator(final int port) throws IOException {
+    this(port, DEFAULT_QUEUE_CAPACITY, DEFAULT_JOB_TIMEOUT);
+  }
+
+  /**
+   * Constructs a new GenerationCoordinator and starts accepting workers on the given port.
+   *
+   * @param port the port to listen on, or 0 for any free port
+   * @param queueCapacity the number of jobs that may wait for a worker
+   * @param jobTimeout the time a worker may hold jobs without returning a result
+   * @throws IOException if the port cannot be opened
+   */
+  public GenerationCoordinator(final int port, final int queueCapacity, final Duration jobTimeout)
+      throws IOException {
+    if (queueCapacity <= 0) {
+      throw new IllegalArgumentException("Queue capacity must be greater than zero");
+    }
+    if (jobTimeout.isNegative() || jobTimeout.isZero()) {
+      throw new IllegalArgumentException("Job timeout must be greater than zero");
+    }
+    queueSlots = new Semaphore(queueCapacity);
+    jobTimeoutNanos = jobTimeout.toNanos();
+    serverSocket = new ServerSocket(port);
+    final Thread acceptThread = new Thread(this::accept, "generation-coordinator");
+    acceptThread.setDaemon(true);
+    acceptThread.start();
+    watchdogThread = new Thread(this::watch, "generation-coordinator-watchdog");
+    watchdogThread.setDaemon(true);
+    watchdogThread.start();
+  }
+
+  /**
+   * Returns the port the coordinator listens on.
+   *
+   * @return the port of the coordinator
+   */
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Returns the number of workers currently connected.
+   *
+   * @return the number of connected workers
+   */
+  public int getWorkerCount() {
+    return connections.size();
+  }
+
+  /**
+   * Queues the generation of a puzzle, waiting while the queue is full.
+   *
+   * @param difficultyLevel the difficulty level of the puzzle
+   * @param seed the seed of the puzzle
+   * @return a future completed with the generated board
+   * @throws InterruptedException if the thread is interrupted while waiting for the queue
+   */
+  public CompletableFuture<SudokuBoard> submitGeneration(
+      final DifficultyLevel difficultyLevel, final long seed) throws InterruptedException {
+    return submit(GENERATE, difficultyLevel.name() + SEPARATOR + seed)
+        .thenApply(
+            payload -> {
+              String[] grids = payload.split(SEPARATOR);
+              return new SudokuBoard(
+                  WorkerProtocol.decodeGrid(grids[0]),
+                  WorkerProtocol.decodeGrid(grids[1]),
+                  difficultyLevel);
+            });
+  }
+
+  /**
+   * Queues the validation of a puzzle, waiting while the queue is full.
+   *
+   * @param grid the puzzle to validate
+   * @return a future completed with the number of solutions of the puzzle, at most two
+   * @throws InterruptedException if the thread is interrupted while waiting for the queue
+   */
+  public CompletableFuture<Integer> submitValidation(final byte[][] grid)
+      throws InterruptedException {
+    return submit(VALIDATE, WorkerProtocol.encodeGrid(grid)).thenApply(Integer::parseInt);
+  }
+
+  /**
+   * Stops accepting workers, disconnects all workers and fails the jobs that are still queued.
+   *
+   * @throws IOException if the server socket cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    isClosed = true;
+    serverSocket.close();
+    watchdogThread.interrupt();
+    for (WorkerConnection connection : connections) {
+      connection.close();
+    }
+    Job job;
+    while ((job = jobs.poll()) != null) {
+      job.result.completeExceptionally(new IllegalStateException("Coordinator closed"));
+    }
+    // Wakes a waiting producer, which passes the slot on to the next one when it sees the close.
+    queueSlots.release();
+  }
+
+  private CompletableFuture<String> submit(final String type, final String arguments)
+      throws InterruptedException {
+    if (isClosed) {
+      throw new IllegalStateException("Coordinator closed");
+    }
+    queueSlots.acquire();
+    if (isClosed) {
+      queueSlots.release();
+      throw new IllegalStateException("Coordinator closed");
+    }
+    final Job job = new Job(nextId.incrementAndGet(), type, arguments);
+    jobs.offer(job);
+    return job.result;
+  }
+
+  private void accept() {
+    try {
+      while (!isClosed) {
+        new WorkerConnection(serverSocket.accept()).start();
+      }
+    } catch (IOException e) {
+      if (!isClosed) {
+        log.error("Error accepting workers: {}", e.getMessage());
+      }
+    }
+  }
+
+  /** Drops the workers that hold jobs without having returned a result within the job timeout. */
+  private void watch() {
+    final long intervalMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(jobTimeoutNanos) / 4);
+    try {
+      while (!isClosed) {
+        Thread.sleep(intervalMillis);
+        final long now = System.nanoTime();
+        for (WorkerConnection connection : connections) {
+          if (connection.isStalled(now)) {
+            log.warn(
+                "Worker {} returned no result within {}ms, requeueing its jobs",
+                connection.socket.getRemoteSocketAddress(),
+                TimeUnit.NANOSECONDS.toMillis(jobTimeoutNanos));
+            connection.close();
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void requeue(final Job job) {
+    if (isClosed) {
+      job.result.completeExceptionally(new IllegalStateException("Coordinator closed"));
+    } else if (++job.attempts >= MAX_ATTEMPTS) {
+      job.result.completeExceptionally(
+          new IOException("Job " + job.id + " lost with " + job.attempts + " workers"));
+    } else {
+      jobs.offerFirst(job);
+    }
+  }
+
+  private static final class Job {
+    private final long id;
+    private final String line;
+    private final CompletableFuture<String> result = new CompletableFuture<>();
+    private int attempts;
+
+    private Job(final long id, final String type, final String arguments) {
+      this.id = id;
+      line = type + SEPARATOR + id + SEPARATOR + arguments;
+    }
+  }
+
+  private final class WorkerConnection {
+    private final Socket socket;
+    private final Map<Long, Job> inFlight = new ConcurrentHashMap<>();
+    private final Semaphore credits = new Semaphore(0);
+    private final AtomicBoolean isDisconnected = new AtomicBoolean();
+    private volatile Thread writerThread;
+    private volatile long lastProgress;
+
+    private WorkerConnection(final Socket socket) {
+      this.socket = socket;
+    }
+
+    private void start() {
+      final Thread readerThread = new Thread(this::read, "generation-worker-reader");
+      readerThread.setDaemon(true);
+      readerThread.start();
+    }
+
+    private void read() {
+      try (BufferedReader reader =
+          new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8))) {
+        final String hello = reader.readLine();
+        if (hello == null || !hello.startsWith(HELLO + SEPARATOR)) {
+          throw new IOException("Unexpected greeting from worker");
+        }
+        credits.release(Integer.parseInt(hello.substring(HELLO.length() + 1)));
+        connections.add(this);
+        writerThread = new Thread(this::write, "generation-worker-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+          handle(line);
+        }
+      } catch (IOException | RuntimeException e) {
+        if (!isDisconnected.get()) {
+          log.warn("Worker {} failed: {}", socket.getRemoteSocketAddress(), e.getMessage());
+        }
+      } finally {
+        close();
+      }
+    }
+
+    private void handle(final String line) {
+      final String[] fields = line.split(SEPARATOR, 3);
+      final Job job = inFlight.remove(Long.parseLong(fields[1]));
+      if (job == null) {
+        return;
+      }
+      lastProgress = System.nanoTime();
+      credits.release();
+      final String payload = fields.length > 2 ? fields[2] : "";
+      if (fields[0].equals(RESULT)) {
+        job.result.complete(payload);
+      } else if (fields[0].equals(ERROR)) {
+        job.result.completeExceptionally(new IllegalStateException(payload));
+      } else {
+        throw new IllegalArgumentException("Unexpected message from worker: " + fields[0]);
+      }
+    }
+
+    private void write() {
+      final List<Job> batch = new ArrayList<>();
+      try {
+        final BufferedWriter writer =
+            new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), UTF_8));
+        while (!isDisconnected.get()) {
+          credits.acquire();
+          takeJob(jobs.take(), batch);
+          while (credits.tryAcquire()) {
+            Job job = jobs.poll();
+            if (job == null) {
+              credits.release();
+              break;
+            }
+            takeJob(job, batch);
+          }
+
+          for (Job job : batch) {
+            writer.write(job.line);
+            writer.newLine();
+          }
+          writer.flush();
+          batch.clear();
+        }
+      } catch (IOException e) {
+        log.warn("Error sending jobs to worker: {}", e.getMessage());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        close();
+        requeueInFlight();
+      }
+    }
+
+    private void takeJob(final Job job, final List<Job> batch) {
+      if (job.attempts == 0) {
+        queueSlots.release();
+      }
+      if (inFlight.isEmpty()) {
+        lastProgress = System.nanoTime();
+      }
+      inFlight.put(job.id, job);
+      batch.add(job);
+    }
+
+    private boolean isStalled(final long now) {
+      return !inFlight.isEmpty() && now - lastProgress > jobTimeoutNanos;
+    }
+
+    private void close() {
+      if (!isDisconnected.compareAndSet(false, true)) {
+        return;
+      }
+      connections.remove(this);
+      try {
+        socket.close();
+      } catch (IOException e) {
+        log.warn("Error closing worker connection: {}", e.getMessage());
+      }
+      if (writerThread != null) {
+        writerThread.interrupt();
+      }
+      requeueInFlight();
+    }
+
+    private void requeueInFlight() {
+      for (Long id : inFlight.keySet()) {
+        Job job = inFlight.remove(id);
+        if (job != null) {
+          requeue(job);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,181 @@
+package ch.zhaw.pm2.amongdigits.catalog;
+
+import static ch.zhaw.pm2.amongdigits.catalog.WorkerProtocol.ERROR;
+import static ch.zhaw.pm2.amongdigits.catalog.WorkerProtocol.GENERATE;
+import static ch.zhaw.pm2.amongdigits.catalog.WorkerProtocol.HELLO;
+import static ch.zhaw.pm2.amongdigits.catalog.WorkerProtocol.RESULT;
+import static ch.zhaw.pm2.amongdigits.catalog.WorkerProtocol.SEPARATOR;
+import static ch.zhaw.pm2.amongdigits.catalog.WorkerProtocol.VALIDATE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import ch.zhaw.pm2.amongdigits.DifficultyLevel;
+import ch.zhaw.pm2.amongdigits.SudokuBoard;
+import ch.zhaw.pm2.amongdigits.utils.Creator;
+import ch.zhaw.pm2.amongdigits.utils.Solver;
+import ch.zhaw.pm2.amongdigits.utils.schema.SchemaTypes;
+import ch.zhaw.pm2.amongdigits.utils.sudoku.SudokuManager;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A headless process that runs the jobs of a {@link GenerationCoordinator}. The worker connects to
+ * the coordinator, accepts twice as many jobs as it has threads so that a thread never waits for
+ * the next job, and sends the results back in batches of everything finished since the last
+ * batch. It runs until the coordinator closes the connection.
+ */
+@Slf4j
+public class GenerationWorker {
+
+  private static final int CREDITS_PER_THREAD = 2;
+
+  private final String host;
+  private final int port;
+  private final int threads;
+
+  /**
+   * Constructs a new GenerationWorker.
+   *
+   * @param host the host of the coordinator
+   * @param port the port of the coordinator
+   * @param threads the number of threads to run jobs on
+   */
+  public GenerationWorker(final String host, final int port, final int threads) {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Thread count must be greater than zero");
+    }
+    this.host = host;
+    this.port = port;
+    this.threads = threads;
+  }
+
+  /**
+   * Runs a worker from the command line. The arguments are the host and the port of the
+   * coordinator and optionally the number of threads, in this order. The usage is printed if an
+   * argument is missing or not a number.
+   *
+   * @param args The command line arguments.
+   */
+  public static void main(String[] args) {
+    final int port;
+    final int threads;
+    try {
+      if (args.length < 2) {
+        throw new IllegalArgumentException("Missing arguments");
+      }
+      port = Integer.parseInt(args[1]);
+      threads =
+          args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+    } catch (IllegalArgumentException e) {
+      log.error("Usage: {} <host> <port> [threads]", GenerationWorker.class.getName());
+      System.exit(1);
+      return;
+    }
+
+    try {
+      new GenerationWorker(args[0], port, threads).run();
+    } catch (IOException e) {
+      log.error("Error running worker: {}", e.getMessage());
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Connects to the coordinator and runs its jobs until the connection is closed.
+   *
+   * @throws IOException if the coordinator cannot be reached
+   */
+  public void run() throws IOException {
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    final BlockingQueue<String> results = new LinkedBlockingQueue<>();
+    try (Socket socket = new Socket(host, port);
+        BufferedReader reader =
+            new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+        BufferedWriter writer =
+            new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), UTF_8))) {
+      writer.write(HELLO + SEPARATOR + threads * CREDITS_PER_THREAD);
+      writer.newLine();
+      writer.flush();
+
+      final Thread resultThread = new Thread(() -> sendResults(results, writer, socket));
+      resultThread.setDaemon(true);
+      resultThread.start();
+      try {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          final String job = line;
+          executor.execute(() -> results.offer(runJob(job)));
+        }
+      } finally {
+        resultThread.interrupt();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void sendResults(
+      final BlockingQueue<String> results, final BufferedWriter writer, final Socket socket) {
+    final List<String> batch = new ArrayList<>();
+    try {
+      while (true) {
+        batch.add(results.take());
+        results.drainTo(batch);
+        for (String result : batch) {
+          writer.write(result);
+          writer.newLine();
+        }
+        writer.flush();
+        batch.clear();
+      }
+    } catch (IOException e) {
+      log.error("Error sending results: {}", e.getMessage());
+      try {
+        socket.close();
+      } catch (IOException closeException) {
+        log.error("Error closing connection: {}", closeException.getMessage());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static String runJob(final String line) {
+    final String[] fields = line.split(SEPARATOR);
+    final String id = fields.length > 1 ? fields[1] : "";
+    try {
+      return RESULT + SEPARATOR + id + SEPARATOR + runJob(fields);
+    } catch (RuntimeException e) {
+      return ERROR + SEPARATOR + id + SEPARATOR + WorkerProtocol.encodeMessage(e);
+    }
+  }
+
+  private static String runJob(final String[] fields) {
+    switch (fields[0]) {
+      case GENERATE -> {
+        SudokuBoard sudokuBoard =
+            Creator.generate(DifficultyLevel.valueOf(fields[2]), Long.parseLong(fields[3]))
+                .toSudokuBoard();
+        return WorkerProtocol.encodeGrid(sudokuBoard.unsolvedGrid())
+            + SEPARATOR
+            + WorkerProtocol.encodeGrid(sudokuBoard.solvedGrid());
+      }
+      case VALIDATE -> {
+        SudokuManager sudokuManager = new SudokuManager(SchemaTypes.SCHEMA_9X9);
+        sudokuManager.setAll(WorkerProtocol.decodeGrid(fields[2]));
+        return String.valueOf(sudokuManager.isValid() ? Solver.solve(sudokuManager, 2).size() : 0);
+      }
+      default -> throw new IllegalArgumentException("Unknown job: " + fields[0]);
+    }
+  }
+}
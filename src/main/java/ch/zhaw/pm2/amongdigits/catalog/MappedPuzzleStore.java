@@ -0,0 +1,175 @@
+package ch.zhaw.pm2.amongdigits.catalog;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import ch.zhaw.pm2.amongdigits.SudokuBoard;
+import ch.zhaw.pm2.amongdigits.utils.matrix.MatrixCodec;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * A file of Sudoku boards for catalogs of millions of puzzles. The file is mapped into memory, so
+ * boards are read and appended without loading the catalog onto the heap and without a system call
+ * per board. The store may be used from several threads at once.
+ *
+ * <p>The file starts with a header of a magic number and the number of boards, followed by one
+ * {@link MatrixCodec} record with checksum per board. As all records have the same size, the board
+ * with a given index is found by its offset. The file grows in steps that double its capacity and
+ * may therefore be longer than its boards; the number in the header is authoritative.
+ */
+public class MappedPuzzleStore implements Closeable {
+
+  /** The number of bytes of a board record. */
+  static final int RECORD_BYTES = MatrixCodec.getBoardRecordBytes(true);
+
+  private static final int MAGIC = 0x41445333;
+  private static final int HEADER_BYTES = 2 * Integer.BYTES;
+  private static final int COUNT_OFFSET = Integer.BYTES;
+  private static final int INITIAL_CAPACITY = 1024;
+
+  /** The largest number of boards a store can hold, limited by the size of one mapping. */
+  static final int MAX_BOARDS = (Integer.MAX_VALUE - HEADER_BYTES) / RECORD_BYTES;
+
+  private final Path file;
+  private final FileChannel channel;
+  private MappedByteBuffer buffer;
+  private int capacity;
+  private int size;
+
+  /**
+   * Opens the store in the given file, creating the file if it does not exist.
+   *
+   * @param file the file of the store
+   * @throws IOException if the file cannot be opened or is not a valid store
+   */
+  public MappedPuzzleStore(final Path file) throws IOException {
+    this.file = file;
+    this.channel = FileChannel.open(file, CREATE, READ, WRITE);
+    try {
+      final long fileSize = channel.size();
+      if (fileSize == 0) {
+        map(INITIAL_CAPACITY);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(COUNT_OFFSET, 0);
+      } else {
+        open(fileSize);
+      }
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Appends the given board to the end of the store.
+   *
+   * @param sudokuBoard the 9x9 board to append, whose givens agree with its solution
+   * @return the index of the appended board
+   * @throws IOException if the file cannot be grown
+   * @throws IllegalStateException if the store is full
+   */
+  public synchronized int append(final SudokuBoard sudokuBoard) throws IOException {
+    if (size == capacity) {
+      if (capacity == MAX_BOARDS) {
+        throw new IllegalStateException("Puzzle store is full");
+      }
+      map((int) Math.min(Math.max((long) capacity * 2, INITIAL_CAPACITY), MAX_BOARDS));
+    }
+    final byte[] record = MatrixCodec.encodeBoard(sudokuBoard, true);
+    buffer.put(offsetOf(size), record);
+    buffer.putInt(COUNT_OFFSET, ++size);
+    return size - 1;
+  }
+
+  /**
+   * Returns the board with the given index.
+   *
+   * @param index the index of the board
+   * @return the board
+   * @throws IndexOutOfBoundsException if there is no board with the given index
+   * @throws IllegalStateException if the record of the board is corrupt
+   */
+  public synchronized SudokuBoard get(final int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("No board with index " + index);
+    }
+    final byte[] record = new byte[RECORD_BYTES];
+    buffer.get(offsetOf(index), record);
+    try {
+      return MatrixCodec.decodeBoard(record, 0, true);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException(
+          "Corrupt board " + index + " in " + file + ": " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Passes all boards to the given action in the order they were appended. Boards appended during
+   * the scan are not passed.
+   *
+   * @param action the action to pass the boards to
+   * @throws IllegalStateException if the record of a board is corrupt
+   */
+  public void forEach(final Consumer<SudokuBoard> action) {
+    final int count = size();
+    for (int index = 0; index < count; index++) {
+      action.accept(get(index));
+    }
+  }
+
+  /**
+   * Returns the number of boards in the store.
+   *
+   * @return the number of boards
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  /** Writes all appended boards to the storage device. */
+  public synchronized void force() {
+    buffer.force();
+  }
+
+  /**
+   * Writes all appended boards to the storage device and closes the file.
+   *
+   * @throws IOException if the file cannot be closed
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    buffer.force();
+    channel.close();
+  }
+
+  private void open(final long fileSize) throws IOException {
+    if (fileSize < HEADER_BYTES || fileSize > HEADER_BYTES + (long) MAX_BOARDS * RECORD_BYTES) {
+      throw new IOException("Not a puzzle store file: " + file);
+    }
+    map((int) ((fileSize - HEADER_BYTES) / RECORD_BYTES));
+    if (buffer.getInt(0) != MAGIC) {
+      throw new IOException("Not a puzzle store file: " + file);
+    }
+    final int count = buffer.getInt(COUNT_OFFSET);
+    if (count < 0 || count > capacity) {
+      throw new IOException("Invalid number of boards in puzzle store file: " + file);
+    }
+    size = count;
+  }
+
+  private void map(final int newCapacity) throws IOException {
+    buffer = channel.map(MapMode.READ_WRITE, 0, offsetOf(newCapacity));
+    capacity = newCapacity;
+  }
+
+  private static int offsetOf(final int index) {
+    return HEADER_BYTES + index * RECORD_BYTES;
+  }
+}
@@ -0,0 +1,202 @@
+package ch.zhaw.pm2.amongdigits.catalog;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import ch.zhaw.pm2.amongdigits.utils.Canonicalizer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+
+/**
+ * A Bloom filter of the puzzles of a catalog, keyed by the {@link Canonicalizer#hash(byte[][])
+ * canonical hash} of their grids. It answers whether a puzzle might have been seen before: a
+ * negative answer is certain and saves the exact lookup, a positive answer is wrong at the false
+ * positive rate the filter was sized for and must be confirmed by an exact lookup. Puzzles cannot
+ * be removed from the filter.
+ *
+ * <p>The bits are kept in a file that is mapped into memory, so adding a puzzle only changes the
+ * touched bits and the filter survives a restart. A filter for {@value #DEFAULT_CAPACITY} puzzles
+ * at a false positive rate of one percent takes about 12 MB. The filter may be used from several
+ * threads at once.
+ */
+public class PuzzleFilter implements Closeable {
+
+  /** The file ending of filter files. */
+  public static final String FILE_ENDING = ".filter";
+
+  /** The number of puzzles a filter is sized for by default. */
+  public static final long DEFAULT_CAPACITY = 10_000_000L;
+
+  /** The false positive rate a filter is sized for by default. */
+  public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+  private static final int MAGIC = 0x41444246;
+  private static final int BITS_OFFSET = Integer.BYTES;
+  private static final int HASHES_OFFSET = BITS_OFFSET + Long.BYTES;
+  private static final int COUNT_OFFSET = HASHES_OFFSET + Integer.BYTES;
+  private static final int HEADER_BYTES = COUNT_OFFSET + Long.BYTES;
+  private static final long MAX_BITS = (long) (Integer.MAX_VALUE - HEADER_BYTES) / Long.BYTES * 64;
+
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private final long bitCount;
+  private final int hashCount;
+
+  /**
+   * Opens the filter in the given file. If the file does not exist, a new filter sized for the
+   * given capacity and false positive rate is created, otherwise the filter keeps the size it was
+   * created with.
+   *
+   * @param file the file of the filter
+   * @param capacity the number of puzzles to size a new filter for
+   * @param falsePositiveRate the false positive rate to size a new filter for
+   * @throws IOException if the file cannot be opened or is not a valid filter
+   * @throws IllegalArgumentException if the capacity or the false positive rate is out of range
+   */
+  public PuzzleFilter(final Path file, final long capacity, final double falsePositiveRate)
+      throws IOException {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be greater than zero");
+    }
+    if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("False positive rate must be between zero and one");
+    }
+    channel = FileChannel.open(file, CREATE, READ, WRITE);
+    try {
+      if (channel.size() == 0) {
+        // The optimal size and number of hashes of a Bloom filter for the given capacity and rate.
+        final double ln2 = Math.log(2);
+        final long optimalBits =
+            (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+        bitCount = Math.min(MAX_BITS, (optimalBits + 63) / 64 * 64);
+        hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * ln2));
+        buffer = channel.map(MapMode.READ_WRITE, 0, HEADER_BYTES + bitCount / Byte.SIZE);
+        buffer.putInt(0, MAGIC);
+        buffer.putLong(BITS_OFFSET, bitCount);
+        buffer.putInt(HASHES_OFFSET, hashCount);
+        buffer.putLong(COUNT_OFFSET, 0);
+      } else {
+        if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+          throw new IOException("Not a puzzle filter file: " + file);
+        }
+        buffer = channel.map(MapMode.READ_WRITE, 0, channel.size());
+        bitCount = buffer.getLong(BITS_OFFSET);
+        hashCount = buffer.getInt(HASHES_OFFSET);
+        if (buffer.getInt(0) != MAGIC
+            || bitCount <= 0
+            || bitCount % 64 != 0
+            || buffer.capacity() != HEADER_BYTES + bitCount / Byte.SIZE
+            || hashCount <= 0) {
+          throw new IOException("Not a puzzle filter file: " + file);
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Opens the filter in the given file, creating a filter of the default size if the file does not
+   * exist.
+   *
+   * @param file the file of the filter
+   * @throws IOException if the file cannot be opened or is not a valid filter
+   */
+  public PuzzleFilter(final Path file) throws IOException {
+    this(file, DEFAULT_CAPACITY, DEFAULT_FALSE_POSITIVE_RATE);
+  }
+
+  /**
+   * Adds the puzzle with the given canonical hash.
+   *
+   * @param hash the canonical hash of the puzzle
+   * @return true if the puzzle was certainly not contained before, false if it might have been
+   */
+  public synchronized boolean add(final long hash) {
+    boolean isNew = false;
+    final long step = spread(hash);
+    for (int i = 0; i < hashCount; i++) {
+      final long bit = Long.remainderUnsigned(hash + i * step, bitCount);
+      final int offset = HEADER_BYTES + (int) (bit / 64) * Long.BYTES;
+      final long word = buffer.getLong(offset);
+      final long mask = 1L << (bit % 64);
+      if ((word & mask) == 0) {
+        buffer.putLong(offset, word | mask);
+        isNew = true;
+      }
+    }
+    if (isNew) {
+      buffer.putLong(COUNT_OFFSET, buffer.getLong(COUNT_OFFSET) + 1);
+    }
+    return isNew;
+  }
+
+  /**
+   * Returns whether the puzzle with the given canonical hash might have been added.
+   *
+   * @param hash the canonical hash of the puzzle
+   * @return false if the puzzle was certainly not added, true if it might have been
+   */
+  public synchronized boolean mightContain(final long hash) {
+    final long step = spread(hash);
+    for (int i = 0; i < hashCount; i++) {
+      final long bit = Long.remainderUnsigned(hash + i * step, bitCount);
+      final long word = buffer.getLong(HEADER_BYTES + (int) (bit / 64) * Long.BYTES);
+      if ((word & (1L << (bit % 64))) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the number of puzzles added that were certainly new, a lower bound of the number of
+   * different puzzles added.
+   *
+   * @return the number of new puzzles added
+   */
+  public synchronized long getCount() {
+    return buffer.getLong(COUNT_OFFSET);
+  }
+
+  /**
+   * Returns the number of bits of the filter.
+   *
+   * @return the number of bits
+   */
+  public long getBitCount() {
+    return bitCount;
+  }
+
+  /**
+   * Returns the number of bits set per puzzle.
+   *
+   * @return the number of hashes
+   */
+  public int getHashCount() {
+    return hashCount;
+  }
+
+  /**
+   * Writes the filter to the storage device and closes the file.
+   *
+   * @throws IOException if the file cannot be closed
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    buffer.force();
+    channel.close();
+  }
+
+  /** Derives the odd step between the bits of a puzzle from its hash. */
+  private static long spread(final long hash) {
+    final long spread = (hash ^ hash >>> 31) * 0x9E3779B97F4A7C15L;
+    return (spread ^ spread >>> 29) | 1;
+  }
+}
@@ -0,0 +1,89 @@
+package ch.zhaw.pm2.amongdigits.catalog;
+
+import static ch.zhaw.pm2.amongdigits.utils.SudokuConstants.SUDOKU_GRID_SIZE;
+
+/**
+ * The line protocol between a {@link GenerationCoordinator} and its {@link GenerationWorker}s.
+ * Every message is one line of space separated fields:
+ *
+ * <ul>
+ *   <li>{@code HELLO <credits>} from the worker once connected, announcing how many jobs it accepts
+ *       at a time.
+ *   <li>{@code GENERATE <id> <level> <seed>} from the coordinator, to generate a puzzle.
+ *   <li>{@code VALIDATE <id> <grid>} from the coordinator, to count the solutions of a puzzle up to
+ *       two.
+ *   <li>{@code RESULT <id> <payload>} from the worker, with both grids of a generated puzzle or the
+ *       solution count.
+ *   <li>{@code ERROR <id> <message>} from the worker, if a job cannot be run. The message is
+ *       written on one line, see {@link #encodeMessage(Exception)}.
+ * </ul>
+ *
+ * <p>Grids are written row by row as one digit per cell, with {@code 0} for an empty cell.
+ */
+final class WorkerProtocol {
+
+  static final String HELLO = "HELLO";
+  static final String GENERATE = "GENERATE";
+  static final String VALIDATE = "VALIDATE";
+  static final String RESULT = "RESULT";
+  static final String ERROR = "ERROR";
+  static final String SEPARATOR = " ";
+
+  private WorkerProtocol() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  /**
+   * Encodes the message of the given exception as the last field of a line. Line breaks are
+   * replaced by spaces, as they would end the message early, and an exception without a message is
+   * described by its class name.
+   *
+   * @param exception the exception to encode the message of
+   * @return the encoded message
+   */
+  static String encodeMessage(final Exception exception) {
+    final String message = exception.getMessage();
+    if (message == null) {
+      return exception.getClass().getSimpleName();
+    }
+    return message.replaceAll("\\R", SEPARATOR);
+  }
+
+  /**
+   * Encodes the given grid as one digit per cell.
+   *
+   * @param grid the grid to encode
+   * @return the encoded grid
+   */
+  static String encodeGrid(final byte[][] grid) {
+    final StringBuilder encoded = new StringBuilder(SUDOKU_GRID_SIZE * SUDOKU_GRID_SIZE);
+    for (byte[] row : grid) {
+      for (byte cell : row) {
+        encoded.append((char) ('0' + cell));
+      }
+    }
+    return encoded.toString();
+  }
+
+  /**
+   * Decodes a grid encoded by {@link #encodeGrid(byte[][])}.
+   *
+   * @param encoded the encoded grid
+   * @return the decoded grid
+   * @throws IllegalArgumentException if the encoded grid has the wrong length or a non-digit
+   */
+  static byte[][] decodeGrid(final String encoded) {
+    if (encoded.length() != SUDOKU_GRID_SIZE * SUDOKU_GRID_SIZE) {
+      throw new IllegalArgumentException("Invalid grid length: " + encoded.length());
+    }
+    final byte[][] grid = new byte[SUDOKU_GRID_SIZE][SUDOKU_GRID_SIZE];
+    for (int cell = 0; cell < encoded.length(); cell++) {
+      int value = encoded.charAt(cell) - '0';
+      if (value < 0 || value > SUDOKU_GRID_SIZE) {
+        throw new IllegalArgumentException("Invalid grid cell: " + encoded.charAt(cell));
+      }
+      grid[cell / SUDOKU_GRID_SIZE][cell % SUDOKU_GRID_SIZE] = (byte) value;
+    }
+    return grid;
+  }
+}
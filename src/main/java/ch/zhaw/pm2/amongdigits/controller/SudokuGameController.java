@@ -22,6 +22,7 @@ import ch.zhaw.pm2.amongdigits.ControlledScreen;
 import ch.zhaw.pm2.amongdigits.DifficultyLevel;
 import ch.zhaw.pm2.amongdigits.exception.InvalidFileFormatException;
 import ch.zhaw.pm2.amongdigits.exception.InvalidSudokuException;
+import ch.zhaw.pm2.amongdigits.exception.SudokuUnavailableException;
 import ch.zhaw.pm2.amongdigits.model.SudokuGameModel;
 import ch.zhaw.pm2.amongdigits.utils.alert.AlertBuilder;
 import ch.zhaw.pm2.amongdigits.utils.alert.AlertOptions;
@@ -157,6 +158,15 @@ public class SudokuGameController extends ControlledScreen {
               }
             });
 
+    model
+        .isRefinedProperty()
+        .addListener(
+            (observable, oldValue, newValue) -> {
+              if (TRUE.equals(newValue)) {
+                resetGame();
+              }
+            });
+
     rootPane.setOnKeyPressed(
         event -> {
           if (event.getCode() == KeyCode.F1) {
@@ -169,8 +179,9 @@ public class SudokuGameController extends ControlledScreen {
    * Delegates the creation of a new sudoku based on the given {@link DifficultyLevel}
    *
    * @param difficultyLevel the {@link DifficultyLevel} for the Sudoku game to be created
+   * @throws SudokuUnavailableException if no puzzle is available within the budget
    */
-  public void createSudoku(DifficultyLevel difficultyLevel) {
+  public void createSudoku(DifficultyLevel difficultyLevel) throws SudokuUnavailableException {
     model.createSudoku(difficultyLevel);
     fillInitialSudoku();
     model.startGame();
@@ -264,7 +275,10 @@ public class SudokuGameController extends ControlledScreen {
   }
 
   private void resetGame() {
-    deactivateLabel(activeLabel);
+    if (activeLabel != null) {
+      deactivateLabel(activeLabel);
+      rootPane.getScene().setOnKeyPressed(null);
+    }
 
     for (int row = 0; row < SUDOKU_GRID_NUMBER; row++) {
       for (int col = 0; col < SUDOKU_GRID_NUMBER; col++) {
@@ -467,6 +481,7 @@ public class SudokuGameController extends ControlledScreen {
   }
 
   private void processSubLabels(final Label label, final int numKey) {
+    model.markMoveMade();
     final Label[][] subLabels = getSubLabels(label);
     label.setText("");
     int cellIndex = numKey - 1;
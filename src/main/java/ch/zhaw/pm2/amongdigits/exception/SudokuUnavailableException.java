@@ -0,0 +1,14 @@
+package ch.zhaw.pm2.amongdigits.exception;
+
+/** Exception thrown when no Sudoku puzzle can be provided within the time budget of a new game. */
+public class SudokuUnavailableException extends Exception {
+
+  /**
+   * Constructs a new SudokuUnavailableException with the specified detail message.
+   *
+   * @param message the detail message.
+   */
+  public SudokuUnavailableException(final String message) {
+    super(message);
+  }
+}
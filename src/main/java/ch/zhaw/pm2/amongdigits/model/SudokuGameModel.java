@@ -5,27 +5,49 @@ import static ch.zhaw.pm2.amongdigits.PropertyType.STATISTICS;
 import static ch.zhaw.pm2.amongdigits.utils.PropertiesHandler.getPropertyString;
 import static ch.zhaw.pm2.amongdigits.utils.PropertiesHandler.updatePropertyString;
 import static ch.zhaw.pm2.amongdigits.utils.SudokuConstants.EMPTY_GRID_CELL;
+import static ch.zhaw.pm2.amongdigits.utils.SudokuConstants.FILE_AREA_NAME_SEPARATOR;
 import static ch.zhaw.pm2.amongdigits.utils.SudokuConstants.GRID_SEPARATOR;
 import static ch.zhaw.pm2.amongdigits.utils.SudokuConstants.SUDOKU_GRID_SIZE;
 import static java.lang.Integer.parseInt;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
+import ch.zhaw.pm2.amongdigits.ChallengeType;
 import ch.zhaw.pm2.amongdigits.DifficultyLevel;
 import ch.zhaw.pm2.amongdigits.SudokuBoard;
 import ch.zhaw.pm2.amongdigits.exception.InvalidFileFormatException;
 import ch.zhaw.pm2.amongdigits.exception.InvalidSudokuException;
+import ch.zhaw.pm2.amongdigits.exception.SudokuUnavailableException;
+import ch.zhaw.pm2.amongdigits.pool.PuzzlePool;
 import ch.zhaw.pm2.amongdigits.upload.FileValidator;
 import ch.zhaw.pm2.amongdigits.upload.SudokuFileLoader;
 import ch.zhaw.pm2.amongdigits.utils.Creator;
-import ch.zhaw.pm2.amongdigits.utils.Solver;
-import ch.zhaw.pm2.amongdigits.utils.matrix.Matrix;
+import ch.zhaw.pm2.amongdigits.utils.EngineWarmUp;
+import ch.zhaw.pm2.amongdigits.utils.GenerationResult;
+import ch.zhaw.pm2.amongdigits.utils.GridTransformer;
+import ch.zhaw.pm2.amongdigits.utils.ProgressiveSudoku;
 import ch.zhaw.pm2.amongdigits.utils.schema.SchemaTypes;
-import ch.zhaw.pm2.amongdigits.utils.sudoku.Sudoku;
 import ch.zhaw.pm2.amongdigits.utils.sudoku.SudokuManager;
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.IntStream;
 import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
@@ -47,7 +69,21 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class SudokuGameModel {
 
+  private static final String GENERATION_BUDGET = "generationBudget";
+  private static final long DEFAULT_GENERATION_BUDGET_MILLIS = 300;
+  // Every new game gets a generation thread of its own, so it never waits for a generation that
+  // exceeded its budget and only still runs to refill the pool.
+  private static final ExecutorService GENERATION_EXECUTOR =
+      Executors.newCachedThreadPool(createDaemonThreadFactory("sudoku-generation"));
+  private static final ExecutorService REFINEMENT_EXECUTOR =
+      Executors.newSingleThreadExecutor(createDaemonThreadFactory("sudoku-refinement"));
+  private static final AtomicBoolean IS_FIRST_GAME = new AtomicBoolean(true);
+  private static final AtomicReference<FirstGameLatency> FIRST_GAME_LATENCY =
+      new AtomicReference<>();
+
   private final SudokuFileLoader sudokuFileLoader;
+  private final PuzzlePool puzzlePool;
+  private final Executor generationExecutor;
 
   private final IntegerProperty mistakes;
   private final IntegerProperty maxMistakes;
@@ -55,10 +91,13 @@ public class SudokuGameModel {
   private final LongProperty timeLimit;
   private final BooleanProperty isSolved;
   private final BooleanProperty isLimitExceeded;
+  private final BooleanProperty isRefined;
 
   private SudokuBoard sudokuBoard;
   private byte[][] currentGrid;
   private AnimationTimer timer;
+  private boolean isMoveMade;
+  private CompletableFuture<GenerationResult> pendingRefinement;
 
   /**
    * Constructs a new SudokuGameModel object with the given ResourceBundle.
@@ -66,12 +105,27 @@ public class SudokuGameModel {
    * @param resources the ResourceBundle used for loading the Sudoku game file and for localization
    */
   public SudokuGameModel(ResourceBundle resources) {
+    this(resources, PuzzlePool.getDefault(), GENERATION_EXECUTOR);
+  }
+
+  /**
+   * Constructs a new SudokuGameModel object that takes boards from the given pool and generates
+   * new ones on the given executor.
+   *
+   * @param resources the ResourceBundle used for loading the Sudoku game file and for localization
+   * @param puzzlePool the pool to take boards from
+   * @param generationExecutor the executor to generate boards on
+   */
+  SudokuGameModel(ResourceBundle resources, PuzzlePool puzzlePool, Executor generationExecutor) {
+    this.puzzlePool = puzzlePool;
+    this.generationExecutor = generationExecutor;
     mistakes = new SimpleIntegerProperty();
     maxMistakes = new SimpleIntegerProperty();
     elapsedTime = new SimpleLongProperty(System.nanoTime());
     timeLimit = new SimpleLongProperty(System.nanoTime());
     isSolved = new SimpleBooleanProperty();
     isLimitExceeded = new SimpleBooleanProperty();
+    isRefined = new SimpleBooleanProperty();
 
     sudokuFileLoader =
         new SudokuFileLoader(
@@ -80,6 +134,18 @@ public class SudokuGameModel {
             resources);
   }
 
+  /**
+   * Returns how long the first new game of this process took, together with what served it and
+   * the state of the engine warm-up when it was requested, so launches with and without warm-up
+   * can be compared. For a generated game, the time until the generator finished is measured, also
+   * if a pre-generated puzzle was played because the generation exceeded its budget.
+   *
+   * @return the latency of the first game, or an empty optional if it is not known yet
+   */
+  public static Optional<FirstGameLatency> getFirstGameLatency() {
+    return Optional.ofNullable(FIRST_GAME_LATENCY.get());
+  }
+
   /**
    * Returns the current Sudoku board.
    *
@@ -143,6 +209,16 @@ public class SudokuGameModel {
     return isLimitExceeded;
   }
 
+  /**
+   * Returns the boolean property indicating if the Sudoku board has been replaced by its refined
+   * version, which has more numbers cleared.
+   *
+   * @return the boolean property indicating if the Sudoku board has been refined
+   */
+  public BooleanProperty isRefinedProperty() {
+    return isRefined;
+  }
+
   /** Starts a new game by resetting the game, initializing a new timer and starting it. */
   public void startGame() {
     resetGame();
@@ -174,6 +250,7 @@ public class SudokuGameModel {
    * @return true if the input is valid, false otherwise
    */
   public boolean checkInput(byte inputValue, int row, int column) {
+    isMoveMade = true;
     currentGrid[row][column] = inputValue;
 
     if (sudokuBoard.solvedGrid()[row][column] == inputValue) {
@@ -194,6 +271,14 @@ public class SudokuGameModel {
     }
   }
 
+  /**
+   * Marks the game as touched by the player, for example by a pencil mark, so that the board is no
+   * longer replaced by its refined version.
+   */
+  public void markMoveMade() {
+    isMoveMade = true;
+  }
+
   /**
    * Checks if the input field is a default (given) number or not.
    *
@@ -206,19 +291,42 @@ public class SudokuGameModel {
   }
 
   /**
-   * Creates a new Sudoku puzzle with the given difficulty level.
+   * Creates a new Sudoku puzzle with the given difficulty level. A board in stock is used right
+   * away. Otherwise a puzzle is generated, which is playable as soon as its random clearing phase
+   * is done, while more numbers are cleared in the background. The refined puzzle replaces the
+   * current one only if the player has not touched the board yet and the game is still running.
+   *
+   * <p>If the generation does not finish within the milliseconds of the generationBudget setting,
+   * or the thread is interrupted while waiting for it, a transformed pre-generated puzzle of the
+   * same level is played instead and the generated board is added to the stock once it is done.
+   * Without a pre-generated puzzle, the generation gets a second budget before the request fails.
    *
    * @param difficultyLevel the desired difficulty level of the Sudoku puzzle
+   * @throws SudokuUnavailableException if no puzzle is available within the budget
    */
-  public void createSudoku(DifficultyLevel difficultyLevel) {
-    Sudoku sudoku = Creator.createSudoku(difficultyLevel);
-
-    List<Matrix> solutions = Solver.solve(sudoku);
-
-    if (solutions.size() == 1) {
-      sudokuBoard = new SudokuBoard(sudoku.getAll(), solutions.get(0).getAll(), difficultyLevel);
+  public void createSudoku(DifficultyLevel difficultyLevel) throws SudokuUnavailableException {
+    final long start = System.nanoTime();
+    final boolean isFirstGame = IS_FIRST_GAME.getAndSet(false);
+    final EngineWarmUp.State warmUpState = EngineWarmUp.getState();
+    cancelRefinement();
+    isMoveMade = false;
+    isRefined.set(false);
+
+    Optional<SudokuBoard> pooledBoard = puzzlePool.poll(difficultyLevel);
+    if (pooledBoard.isPresent()) {
+      sudokuBoard = pooledBoard.get();
+      if (isFirstGame) {
+        recordFirstGameLatency(System.nanoTime() - start, GameSource.POOL, warmUpState);
+      }
     } else {
-      log.error("Sudoku generation failed. Solution size: " + solutions.size());
+      final CompletableFuture<ProgressiveSudoku> generation = startGeneration(difficultyLevel);
+      if (isFirstGame) {
+        generation.thenRun(
+            () ->
+                recordFirstGameLatency(
+                    System.nanoTime() - start, GameSource.GENERATOR, warmUpState));
+      }
+      playGeneratedSudoku(difficultyLevel, generation);
     }
 
     setDifficultyLevelLimits();
@@ -240,9 +348,165 @@ public class SudokuGameModel {
     setDifficultyLevelLimits();
   }
 
-  /** Stops the timer.. */
+  /** Stops the timer and the refinement of the board, if it is still pending. */
   public void stopGame() {
     timer.stop();
+    cancelRefinement();
+  }
+
+  private CompletableFuture<ProgressiveSudoku> startGeneration(DifficultyLevel difficultyLevel) {
+    final long seed = ThreadLocalRandom.current().nextLong();
+    return CompletableFuture.supplyAsync(
+        () -> Creator.createSudokuProgressively(difficultyLevel, seed, REFINEMENT_EXECUTOR),
+        generationExecutor);
+  }
+
+  private void playGeneratedSudoku(
+      DifficultyLevel difficultyLevel, CompletableFuture<ProgressiveSudoku> generation)
+      throws SudokuUnavailableException {
+    final long generationBudget = getGenerationBudget();
+    try {
+      ProgressiveSudoku progressiveSudoku =
+          generation.get(generationBudget, TimeUnit.MILLISECONDS);
+      sudokuBoard = progressiveSudoku.result().toSudokuBoard();
+
+      final SudokuBoard playableBoard = sudokuBoard;
+      pendingRefinement = progressiveSudoku.refinedResult();
+      pendingRefinement.thenAccept(
+          refinedResult ->
+              Platform.runLater(() -> replaceWithRefined(playableBoard, refinedResult)));
+      return;
+    } catch (TimeoutException e) {
+      log.warn("Sudoku generation exceeded its budget, using a pre-generated puzzle");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.warn("Sudoku generation interrupted, using a pre-generated puzzle");
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Sudoku generation failed", e.getCause());
+    }
+
+    Optional<SudokuBoard> preGeneratedBoard = loadPreGeneratedSudoku(difficultyLevel);
+    if (preGeneratedBoard.isPresent()) {
+      sudokuBoard = preGeneratedBoard.get();
+      offerToPool(generation);
+    } else {
+      sudokuBoard = awaitGeneratedSudoku(generation, generationBudget);
+    }
+  }
+
+  private SudokuBoard awaitGeneratedSudoku(
+      CompletableFuture<ProgressiveSudoku> generation, long generationBudget)
+      throws SudokuUnavailableException {
+    try {
+      return generation.get(generationBudget, TimeUnit.MILLISECONDS).result().toSudokuBoard();
+    } catch (TimeoutException e) {
+      offerToPool(generation);
+      throw new SudokuUnavailableException(
+          "No pre-generated puzzle and the generation exceeded its budget twice");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      offerToPool(generation);
+      throw new SudokuUnavailableException(
+          "No pre-generated puzzle and the generation was interrupted");
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Sudoku generation failed", e.getCause());
+    }
+  }
+
+  private void offerToPool(CompletableFuture<ProgressiveSudoku> generation) {
+    generation
+        .thenCompose(ProgressiveSudoku::refinedResult)
+        .thenAccept(refinedResult -> puzzlePool.offer(refinedResult.toSudokuBoard()));
+  }
+
+  private static void recordFirstGameLatency(
+      long latency, GameSource source, EngineWarmUp.State warmUpState) {
+    FIRST_GAME_LATENCY.set(new FirstGameLatency(latency, source, warmUpState));
+    log.info(
+        "First game from the {} in {} ms, engine warm-up {}",
+        source,
+        TimeUnit.NANOSECONDS.toMillis(latency),
+        warmUpState);
+  }
+
+  private Optional<SudokuBoard> loadPreGeneratedSudoku(DifficultyLevel difficultyLevel) {
+    // The catalog is read through its file list, as the directory cannot be listed in a jar.
+    ChallengeType challengeType = ChallengeType.PRE_GENERATED;
+    String prefix = difficultyLevel.name() + FILE_AREA_NAME_SEPARATOR;
+    List<String> fileNames;
+    try (InputStream inputStream =
+        getClass().getClassLoader().getResourceAsStream(challengeType.getFileList())) {
+      if (inputStream == null) {
+        return Optional.empty();
+      }
+      fileNames =
+          new BufferedReader(new InputStreamReader(inputStream, UTF_8))
+              .lines()
+              .map(String::trim)
+              .filter(fileName -> fileName.startsWith(prefix))
+              .toList();
+    } catch (IOException e) {
+      log.error("Error reading pre-generated sudokus: {}", e.getMessage());
+      return Optional.empty();
+    }
+    if (fileNames.isEmpty()) {
+      return Optional.empty();
+    }
+
+    SplittableRandom random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+    try {
+      SudokuBoard preGeneratedBoard =
+          sudokuFileLoader.loadSudokuResource(
+              challengeType.getDirectory() + "/" + fileNames.get(random.nextInt(fileNames.size())),
+              true);
+      SudokuBoard transformedBoard = GridTransformer.transform(preGeneratedBoard, random);
+      return Optional.of(
+          new SudokuBoard(
+              transformedBoard.unsolvedGrid(), transformedBoard.solvedGrid(), difficultyLevel));
+    } catch (InvalidFileFormatException | InvalidSudokuException e) {
+      log.error("Error loading pre-generated sudoku: {}", e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  private long getGenerationBudget() {
+    String generationBudget = getPropertyString(SETTINGS, GENERATION_BUDGET);
+    if (generationBudget == null) {
+      return DEFAULT_GENERATION_BUDGET_MILLIS;
+    }
+    try {
+      return Long.parseLong(generationBudget.trim());
+    } catch (NumberFormatException e) {
+      log.warn("Invalid generation budget: {}", generationBudget);
+      return DEFAULT_GENERATION_BUDGET_MILLIS;
+    }
+  }
+
+  private void replaceWithRefined(SudokuBoard playableBoard, GenerationResult refinedResult) {
+    if (sudokuBoard != playableBoard || isMoveMade || pendingRefinement == null) {
+      return;
+    }
+
+    pendingRefinement = null;
+    sudokuBoard = refinedResult.toSudokuBoard();
+    setGivenNumbers();
+    isRefined.set(true);
+  }
+
+  private void cancelRefinement() {
+    if (pendingRefinement != null) {
+      // A refinement still waiting for the executor is skipped, a running one is ignored.
+      pendingRefinement.cancel(false);
+      pendingRefinement = null;
+    }
+  }
+
+  private static ThreadFactory createDaemonThreadFactory(String threadName) {
+    return runnable -> {
+      Thread thread = new Thread(runnable, threadName);
+      thread.setDaemon(true);
+      return thread;
+    };
   }
 
   private void setGivenNumbers() {
@@ -297,4 +561,22 @@ public class SudokuGameModel {
       updatePropertyString(STATISTICS, propertyName, String.valueOf(newBestTime));
     }
   }
+
+  /** The sources a new game can be served from. */
+  public enum GameSource {
+    /** A board that was in stock. */
+    POOL,
+    /** A board generated for the game. */
+    GENERATOR
+  }
+
+  /**
+   * The latency of the first new game of a process.
+   *
+   * @param nanos the time from the request until the game was served from the pool or the
+   *     generator finished, in nanoseconds
+   * @param source what served the game
+   * @param warmUpState the state of the engine warm-up when the game was requested
+   */
+  public record FirstGameLatency(long nanos, GameSource source, EngineWarmUp.State warmUpState) {}
 }
@@ -0,0 +1,120 @@
+package ch.zhaw.pm2.amongdigits.pool;
+
+import ch.zhaw.pm2.amongdigits.DifficultyLevel;
+import ch.zhaw.pm2.amongdigits.utils.Creator;
+import ch.zhaw.pm2.amongdigits.utils.GenerationResult;
+import ch.zhaw.pm2.amongdigits.utils.GridTransformer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Refills a {@link PuzzlePool} in the background while the application is idle. The refiller runs
+ * on a single daemon thread with the lowest priority. Each step generates one puzzle for every
+ * difficulty level in a single dig and offers those of the levels that are below the capacity.
+ * Since the puzzles of one dig share their solution, each is offered with a random {@link
+ * GridTransformer} transformation of its own. A puzzle of the dig is only offered if it reached
+ * the number of cleared cells of its level. The levels it falls short of, in practice EXPERT with
+ * its 17 givens, get a puzzle of a {@link Creator#generateLowClue low clue search} with a budget of
+ * {@value #LOW_CLUE_BUDGET_MILLIS} ms instead. That puzzle is offered even if it stays short of the
+ * target too, as it is the one with the fewest givens the engine finds for the level. The refiller
+ * pauses by itself once every level is full, and checks for a pause request between steps.
+ */
+public class PoolRefiller {
+
+  /** The number of boards per difficulty level the refiller stocks up to by default. */
+  public static final int DEFAULT_CAPACITY = 5;
+
+  /** The time a low clue search may take for a level that the dig fell short of. */
+  static final long LOW_CLUE_BUDGET_MILLIS = 500;
+
+  private final PuzzlePool puzzlePool;
+  private final int capacity;
+  private final SplittableRandom random = new SplittableRandom();
+  private final Object lock = new Object();
+  private boolean isRunning;
+  private Thread thread;
+
+  /**
+   * Constructs a new, paused PoolRefiller for the given pool.
+   *
+   * @param puzzlePool the pool to refill
+   * @param capacity the number of boards per difficulty level to stock up to
+   */
+  public PoolRefiller(final PuzzlePool puzzlePool, final int capacity) {
+    this.puzzlePool = puzzlePool;
+    this.capacity = capacity;
+  }
+
+  /** Resumes refilling the pool, starting the background thread on the first call. */
+  public void resume() {
+    synchronized (lock) {
+      isRunning = true;
+      if (thread == null) {
+        thread = new Thread(this::refill, "puzzle-pool-refill");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+      }
+      lock.notifyAll();
+    }
+  }
+
+  /** Pauses refilling the pool after the current step. */
+  public void pause() {
+    synchronized (lock) {
+      isRunning = false;
+    }
+  }
+
+  /**
+   * Returns whether every difficulty level of the pool is stocked up to the capacity.
+   *
+   * @return true if the pool is full, false otherwise
+   */
+  public boolean isFull() {
+    for (DifficultyLevel difficultyLevel : DifficultyLevel.values()) {
+      if (puzzlePool.size(difficultyLevel) < capacity) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void refill() {
+    try {
+      while (true) {
+        synchronized (lock) {
+          while (!isRunning) {
+            lock.wait();
+          }
+        }
+        if (isFull()) {
+          pause();
+        } else {
+          refillStep();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void refillStep() {
+    final Map<DifficultyLevel, GenerationResult> results =
+        Creator.generateAllLevels(random.nextLong());
+    results.forEach(
+        (difficultyLevel, result) -> {
+          if (puzzlePool.size(difficultyLevel) < capacity) {
+            final GenerationResult levelResult =
+                result.isTargetReached()
+                    ? result
+                    : Creator.generateLowClue(
+                        difficultyLevel,
+                        random.nextLong(),
+                        Duration.ofMillis(LOW_CLUE_BUDGET_MILLIS));
+            puzzlePool.offer(GridTransformer.transform(levelResult.toSudokuBoard(), random));
+          }
+        });
+  }
+}
@@ -0,0 +1,267 @@
+package ch.zhaw.pm2.amongdigits.pool;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import ch.zhaw.pm2.amongdigits.DifficultyLevel;
+import ch.zhaw.pm2.amongdigits.SudokuBoard;
+import ch.zhaw.pm2.amongdigits.utils.matrix.MatrixCodec;
+import ch.zhaw.pm2.amongdigits.utils.sudoku.CompactSudokuBoard;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A stock of ready-to-play Sudoku boards per {@link DifficultyLevel}. Boards generated in the
+ * background are offered to the pool, and a new game takes one from it instead of waiting for the
+ * generator. The pool may be used from several threads at once.
+ *
+ * <p>The stock of every level is kept in a compact binary file in the pool's directory, so the
+ * stock survives a restart. The file starts with the number of boards already taken, followed by
+ * one {@link MatrixCodec} record with checksum per board in the order they were added, so a damaged
+ * file is detected on load. Adding a board appends its record and taking one only updates the
+ * number of boards taken; the file is rewritten without the taken boards once they make up more
+ * than half of it. In memory, the boards are held as {@link CompactSudokuBoard}s.
+ */
+@Slf4j
+public class PuzzlePool {
+
+  private static final Path DEFAULT_DIRECTORY =
+      Paths.get(System.getProperty("user.home"), ".among-digits", "pool");
+  private static final String POOL_FILE_ENDING = ".pool";
+  private static final int MAGIC = 0x41445033;
+  private static final int TAKEN_OFFSET = Integer.BYTES;
+  private static final int HEADER_BYTES = TAKEN_OFFSET + Integer.BYTES;
+  private static final int RECORD_BYTES = MatrixCodec.getBoardRecordBytes(true);
+
+  private static PuzzlePool defaultPool;
+
+  private final Path directory;
+  private final Map<DifficultyLevel, Stock> stocks = new EnumMap<>(DifficultyLevel.class);
+
+  /**
+   * Constructs a new, empty PuzzlePool that keeps its files in the given directory.
+   *
+   * @param directory the directory of the pool files
+   */
+  public PuzzlePool(final Path directory) {
+    this.directory = directory;
+    for (DifficultyLevel difficultyLevel : DifficultyLevel.values()) {
+      stocks.put(difficultyLevel, new Stock());
+    }
+  }
+
+  /**
+   * Returns the pool shared by the application, which keeps its files in the user's home
+   * directory, loading its stock on the first call. A stock that cannot be read is logged and
+   * started empty.
+   *
+   * @return the pool shared by the application
+   */
+  public static synchronized PuzzlePool getDefault() {
+    if (defaultPool == null) {
+      defaultPool = new PuzzlePool(DEFAULT_DIRECTORY);
+      try {
+        defaultPool.load();
+      } catch (IOException e) {
+        log.error("Error loading puzzle pool: {}", e.getMessage());
+      }
+    }
+    return defaultPool;
+  }
+
+  /**
+   * Loads the stock of every level from the pool's directory. Levels without a file stay as they
+   * are.
+   *
+   * @throws IOException if a pool file cannot be read or is corrupt
+   */
+  public void load() throws IOException {
+    for (DifficultyLevel difficultyLevel : DifficultyLevel.values()) {
+      final Path file = resolveFile(difficultyLevel);
+      if (Files.exists(file)) {
+        final Stock stock = stocks.get(difficultyLevel);
+        synchronized (stock) {
+          stock.boards.clear();
+          stock.isSynced = false;
+          stock.taken = readBoards(file, difficultyLevel, stock.boards);
+          stock.isSynced = true;
+        }
+      }
+    }
+  }
+
+  /**
+   * Adds the given board to the stock of its difficulty level.
+   *
+   * @param sudokuBoard the board to add
+   */
+  public void offer(final SudokuBoard sudokuBoard) {
+    final DifficultyLevel difficultyLevel = sudokuBoard.difficultyLevel();
+    final Stock stock = stocks.get(difficultyLevel);
+    synchronized (stock) {
+      stock.boards.offer(CompactSudokuBoard.of(sudokuBoard));
+      if (stock.isSynced) {
+        final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+        MatrixCodec.encodeBoard(sudokuBoard, record.array(), 0, true);
+        write(difficultyLevel, stock, channel -> channel.write(record), APPEND);
+      } else {
+        rewrite(difficultyLevel, stock);
+      }
+    }
+  }
+
+  /**
+   * Takes the oldest board of the given difficulty level from the stock.
+   *
+   * @param difficultyLevel the difficulty level of the board to take
+   * @return the board, or an empty optional if the stock of the level is empty
+   */
+  public Optional<SudokuBoard> poll(final DifficultyLevel difficultyLevel) {
+    final Stock stock = stocks.get(difficultyLevel);
+    synchronized (stock) {
+      final CompactSudokuBoard sudokuBoard = stock.boards.poll();
+      if (sudokuBoard == null) {
+        return Optional.empty();
+      }
+      stock.taken++;
+      if (stock.isSynced && stock.taken <= stock.boards.size()) {
+        final ByteBuffer taken = ByteBuffer.allocate(Integer.BYTES).putInt(0, stock.taken);
+        write(difficultyLevel, stock, channel -> channel.write(taken, TAKEN_OFFSET), WRITE);
+      } else {
+        rewrite(difficultyLevel, stock);
+      }
+      return Optional.of(sudokuBoard.toSudokuBoard());
+    }
+  }
+
+  /**
+   * Returns the number of boards in stock for the given difficulty level.
+   *
+   * @param difficultyLevel the difficulty level to count the boards of
+   * @return the number of boards in stock
+   */
+  public int size(final DifficultyLevel difficultyLevel) {
+    final Stock stock = stocks.get(difficultyLevel);
+    synchronized (stock) {
+      return stock.boards.size();
+    }
+  }
+
+  private Path resolveFile(final DifficultyLevel difficultyLevel) {
+    return directory.resolve(difficultyLevel.name() + POOL_FILE_ENDING);
+  }
+
+  private void write(
+      final DifficultyLevel difficultyLevel,
+      final Stock stock,
+      final ChannelWrite channelWrite,
+      final StandardOpenOption openOption) {
+    final Path file = resolveFile(difficultyLevel);
+    try (FileChannel channel = FileChannel.open(file, openOption)) {
+      channelWrite.writeTo(channel);
+    } catch (IOException e) {
+      log.error("Error writing puzzle pool {}: {}", file, e.getMessage());
+      stock.isSynced = false;
+    }
+  }
+
+  private void rewrite(final DifficultyLevel difficultyLevel, final Stock stock) {
+    final Path file = resolveFile(difficultyLevel);
+    try {
+      Files.createDirectories(directory);
+      final Path temporaryFile = Files.createTempFile(directory, difficultyLevel.name(), null);
+      try (DataOutputStream outputStream =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+        outputStream.writeInt(MAGIC);
+        outputStream.writeInt(0);
+        final byte[] record = new byte[RECORD_BYTES];
+        for (CompactSudokuBoard sudokuBoard : stock.boards) {
+          MatrixCodec.encodeBoard(sudokuBoard.toSudokuBoard(), record, 0, true);
+          outputStream.write(record);
+        }
+      }
+      Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+      stock.taken = 0;
+      stock.isSynced = true;
+    } catch (IOException e) {
+      log.error("Error writing puzzle pool {}: {}", file, e.getMessage());
+      stock.isSynced = false;
+    }
+  }
+
+  private static int readBoards(
+      final Path file,
+      final DifficultyLevel difficultyLevel,
+      final Queue<CompactSudokuBoard> levelBoards)
+      throws IOException {
+    final long recordsBytes = Files.size(file) - HEADER_BYTES;
+    if (recordsBytes < 0 || recordsBytes % RECORD_BYTES != 0) {
+      throw new IOException("Not a puzzle pool file: " + file);
+    }
+    try (DataInputStream inputStream =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (inputStream.readInt() != MAGIC) {
+        throw new IOException("Not a puzzle pool file: " + file);
+      }
+      final int taken = inputStream.readInt();
+      final long count = recordsBytes / RECORD_BYTES;
+      if (taken < 0 || taken > count) {
+        throw new IOException("Invalid number of taken boards in puzzle pool file: " + file);
+      }
+      inputStream.skipNBytes((long) taken * RECORD_BYTES);
+      final byte[] record = new byte[RECORD_BYTES];
+      for (long i = taken; i < count; i++) {
+        inputStream.readFully(record);
+        levelBoards.offer(CompactSudokuBoard.of(readBoard(record, difficultyLevel, file)));
+      }
+      return taken;
+    }
+  }
+
+  private static SudokuBoard readBoard(
+      final byte[] record, final DifficultyLevel difficultyLevel, final Path file)
+      throws IOException {
+    final SudokuBoard sudokuBoard;
+    try {
+      sudokuBoard = MatrixCodec.decodeBoard(record, 0, true);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Corrupt puzzle pool file " + file + ": " + e.getMessage(), e);
+    }
+    if (sudokuBoard.difficultyLevel() != difficultyLevel) {
+      throw new IOException("Board of the wrong difficulty level in " + file);
+    }
+    return sudokuBoard;
+  }
+
+  /** A write to an open pool file. */
+  @FunctionalInterface
+  private interface ChannelWrite {
+    void writeTo(FileChannel channel) throws IOException;
+  }
+
+  /**
+   * The stock of one difficulty level. Until the stock is known to match its file, for example
+   * before it was loaded or after a write failed, the next change rewrites the file.
+   */
+  private static final class Stock {
+    private final Queue<CompactSudokuBoard> boards = new ArrayDeque<>();
+    private int taken;
+    private boolean isSynced;
+  }
+}
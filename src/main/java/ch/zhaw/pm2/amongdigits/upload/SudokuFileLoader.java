@@ -10,8 +10,10 @@ import static java.util.Objects.requireNonNull;
 import ch.zhaw.pm2.amongdigits.ChallengeType;
 import ch.zhaw.pm2.amongdigits.DifficultyLevel;
 import ch.zhaw.pm2.amongdigits.SudokuBoard;
+import ch.zhaw.pm2.amongdigits.catalog.PuzzleFilter;
 import ch.zhaw.pm2.amongdigits.exception.InvalidFileFormatException;
 import ch.zhaw.pm2.amongdigits.exception.InvalidSudokuException;
+import ch.zhaw.pm2.amongdigits.utils.Canonicalizer;
 import ch.zhaw.pm2.amongdigits.utils.Solver;
 import ch.zhaw.pm2.amongdigits.utils.matrix.Matrix;
 import ch.zhaw.pm2.amongdigits.utils.sudoku.SudokuManager;
@@ -19,9 +21,15 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.net.URL;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.Scanner;
 import javafx.fxml.FXML;
@@ -58,11 +66,14 @@ public class SudokuFileLoader {
    * solves the SudokuBoard and sets the solution to the SudokuManager. If the Sudoku has more than
    * one solution, it throws an InvalidSudokuException. Finally, it creates a new SudokuBoard with
    * the unsolved grid, solved grid and difficulty level, and persists the SudokuBoard to a file
-   * with the same name as the original file.
+   * with the same name as the original file. The file name ends with the content hash of the
+   * {@link UploadIndex}, which equals for copies of a puzzle with relabeled digits or permuted
+   * lines, so such a copy of an uploaded puzzle is rejected as well.
    *
    * @param sudokuFile The file to load the Sudoku puzzle from.
    * @throws InvalidFileFormatException If the file is not in the correct format or size.
-   * @throws InvalidSudokuException If the Sudoku puzzle has no unique solution.
+   * @throws InvalidSudokuException If the Sudoku puzzle has no unique solution or was already
+   *     uploaded.
    */
   public void uploadSudoku(final File sudokuFile)
       throws InvalidFileFormatException, InvalidSudokuException {
@@ -99,9 +110,6 @@ public class SudokuFileLoader {
     if (!fileValidator.isTxtFile(sudokuFile.getName())) {
       throw new InvalidFileFormatException(resourceBundle.getString("no_txt_file_exception"));
     }
-    final byte[][] unsolvedGrid =
-        new byte[fileValidator.getGridSize()][fileValidator.getGridSize()];
-    final byte[][] solvedGrid = new byte[fileValidator.getGridSize()][fileValidator.getGridSize()];
     final List<String> unsolvedGridLines = new ArrayList<>(fileValidator.getGridSize());
     final List<String> solvedGridLines = new ArrayList<>(fileValidator.getGridSize());
 
@@ -111,7 +119,49 @@ public class SudokuFileLoader {
       throw new InvalidFileFormatException(
           format(resourceBundle.getString("not_parseable_exception"), sudokuFile.getName()), e);
     }
+    return createSudokuBoard(unsolvedGridLines, solvedGridLines, containsSolution);
+  }
+
+  /**
+   * This method loads a Sudoku puzzle from a resource on the class path in the same way as {@link
+   * #loadSudokuFile(File, boolean)}. Unlike a file, a resource can also be read when the resources
+   * are packed into a jar.
+   *
+   * @param resourceName The name of the resource to load the Sudoku puzzle from.
+   * @param containsSolution A boolean indicating whether the resource contains the solution grid.
+   * @return A SudokuBoard with the unsolved grid.
+   * @throws InvalidFileFormatException If the resource does not exist or is not in the correct
+   *     format or size.
+   * @throws InvalidSudokuException If the unsolved grid is not a subset of the solved grid.
+   */
+  public SudokuBoard loadSudokuResource(final String resourceName, boolean containsSolution)
+      throws InvalidFileFormatException, InvalidSudokuException {
+    if (!fileValidator.isTxtFile(resourceName)) {
+      throw new InvalidFileFormatException(resourceBundle.getString("no_txt_file_exception"));
+    }
+    final List<String> unsolvedGridLines = new ArrayList<>(fileValidator.getGridSize());
+    final List<String> solvedGridLines = new ArrayList<>(fileValidator.getGridSize());
 
+    final InputStream inputStream =
+        SudokuFileLoader.class.getClassLoader().getResourceAsStream(resourceName);
+    if (inputStream == null) {
+      throw new InvalidFileFormatException(
+          format(resourceBundle.getString("not_parseable_exception"), resourceName));
+    }
+    try (final Scanner scanner = new Scanner(inputStream, UTF_8)) {
+      readFile(unsolvedGridLines, solvedGridLines, scanner);
+    }
+    return createSudokuBoard(unsolvedGridLines, solvedGridLines, containsSolution);
+  }
+
+  private SudokuBoard createSudokuBoard(
+      final List<String> unsolvedGridLines,
+      final List<String> solvedGridLines,
+      final boolean containsSolution)
+      throws InvalidFileFormatException, InvalidSudokuException {
+    final byte[][] unsolvedGrid =
+        new byte[fileValidator.getGridSize()][fileValidator.getGridSize()];
+    final byte[][] solvedGrid = new byte[fileValidator.getGridSize()][fileValidator.getGridSize()];
     if (!fileValidator.isMatchingGridSize(unsolvedGridLines)
         || (containsSolution && !fileValidator.isMatchingGridSize(solvedGridLines))) {
       throw new InvalidFileFormatException(
@@ -195,21 +245,135 @@ public class SudokuFileLoader {
 
   private void persistSudokuFile(final SudokuBoard sudokuBoard, final String fileName)
       throws InvalidSudokuException, InvalidFileFormatException {
-    final URL uploadDirectory =
-        requireNonNull(
-            getClass().getClassLoader().getResource(ChallengeType.USER_GENERATED.getDirectory()));
+    final File uploadDirectory =
+        new File(
+            requireNonNull(
+                    getClass()
+                        .getClassLoader()
+                        .getResource(ChallengeType.USER_GENERATED.getDirectory()))
+                .getFile());
+    final String contentHash = UploadIndex.getContentHash(sudokuBoard.unsolvedGrid());
     final String uploadFileName =
         determineDifficultyLevel(sudokuBoard.unsolvedGrid()).name()
             + FILE_AREA_NAME_SEPARATOR
             + fileName
             + FILE_AREA_NAME_SEPARATOR
-            + sudokuBoard.hashCode()
+            + contentHash
             + "."
             + VALID_FILE_ENDING;
-    final File uploadFile = new File(uploadDirectory.getFile(), uploadFileName);
+    final File uploadFile = new File(uploadDirectory, uploadFileName);
+    final long canonicalHash = Canonicalizer.hash(sudokuBoard.unsolvedGrid());
 
-    createFile(uploadFile);
-    writeFile(sudokuBoard, uploadFile);
+    final Path filterFile = resolveSibling(uploadDirectory, PuzzleFilter.FILE_ENDING);
+    final Path indexFile = resolveSibling(uploadDirectory, UploadIndex.FILE_ENDING);
+    try {
+      rebuildMissingLookups(uploadDirectory, filterFile, indexFile);
+    } catch (final IOException e) {
+      throw new InvalidFileFormatException(
+          format(resourceBundle.getString("sudoku_upload_io_exception"), e.getMessage()));
+    }
+
+    try (final PuzzleFilter puzzleFilter = new PuzzleFilter(filterFile)) {
+      final UploadIndex uploadIndex = new UploadIndex(indexFile);
+      if (puzzleFilter.mightContain(canonicalHash)) {
+        checkNotUploaded(uploadIndex, contentHash);
+      }
+      // The filter comes first, as a puzzle it holds without an upload only costs a lookup.
+      puzzleFilter.add(canonicalHash);
+      createFile(uploadFile);
+      writeFile(sudokuBoard, uploadFile);
+      uploadIndex.put(contentHash, uploadFileName);
+    } catch (final IOException e) {
+      throw new InvalidFileFormatException(
+          format(resourceBundle.getString("sudoku_upload_io_exception"), e.getMessage()));
+    }
+  }
+
+  /**
+   * Creates the filter and the index of the uploaded puzzles next to the upload directory if they
+   * are missing, both from one pass over the puzzles uploaded so far. The index also covers the
+   * puzzles uploaded before file names ended with the content hash. Each is built in a temporary
+   * file that is only moved into place once complete, so an interrupted rebuild never leaves a
+   * partial filter or index that would later be taken for a complete one.
+   */
+  private void rebuildMissingLookups(
+      final File uploadDirectory, final Path filterFile, final Path indexFile) throws IOException {
+    final boolean isFilterMissing = Files.notExists(filterFile);
+    final boolean isIndexMissing = Files.notExists(indexFile);
+    if (!isFilterMissing && !isIndexMissing) {
+      return;
+    }
+
+    final Map<String, byte[][]> uploadedGrids = loadUploadedGrids(uploadDirectory);
+    if (isFilterMissing) {
+      final Path temporaryFile = createTemporarySibling(filterFile);
+      try {
+        try (final PuzzleFilter puzzleFilter = new PuzzleFilter(temporaryFile)) {
+          for (byte[][] grid : uploadedGrids.values()) {
+            puzzleFilter.add(Canonicalizer.hash(grid));
+          }
+        }
+        Files.move(temporaryFile, filterFile, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(temporaryFile);
+      }
+    }
+    if (isIndexMissing) {
+      final Path temporaryFile = createTemporarySibling(indexFile);
+      try {
+        final UploadIndex uploadIndex = new UploadIndex(temporaryFile);
+        for (Map.Entry<String, byte[][]> uploadedGrid : uploadedGrids.entrySet()) {
+          uploadIndex.put(
+              UploadIndex.getContentHash(uploadedGrid.getValue()), uploadedGrid.getKey());
+        }
+        Files.move(temporaryFile, indexFile, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(temporaryFile);
+      }
+    }
+  }
+
+  /** Creates an empty temporary file in the directory of the given file. */
+  private static Path createTemporarySibling(final Path file) throws IOException {
+    return Files.createTempFile(file.getParent(), file.getFileName().toString(), null);
+  }
+
+  /**
+   * Loads the grids of all uploaded puzzles by the names of their files, skipping files that cannot
+   * be read or do not hold a valid puzzle.
+   */
+  private Map<String, byte[][]> loadUploadedGrids(final File uploadDirectory) {
+    final Map<String, byte[][]> grids = new LinkedHashMap<>();
+    final File[] uploadedFiles = uploadDirectory.listFiles();
+    if (uploadedFiles == null) {
+      return grids;
+    }
+    final SudokuManager uploadedManager = new SudokuManager(sudokuManager.getSchema());
+    for (File uploadedFile : uploadedFiles) {
+      try {
+        final byte[][] grid = loadSudokuFile(uploadedFile, false).unsolvedGrid();
+        uploadedManager.setAll(grid);
+        if (uploadedManager.isValid()) {
+          grids.put(uploadedFile.getName(), grid);
+        }
+      } catch (InvalidFileFormatException | InvalidSudokuException | IllegalArgumentException e) {
+        // An unreadable upload is no puzzle that could be uploaded again.
+      }
+    }
+    return grids;
+  }
+
+  private static Path resolveSibling(final File uploadDirectory, final String fileEnding) {
+    return uploadDirectory.toPath().resolveSibling(uploadDirectory.getName() + fileEnding);
+  }
+
+  private void checkNotUploaded(final UploadIndex uploadIndex, final String contentHash)
+      throws InvalidSudokuException, IOException {
+    final Optional<String> uploadedFileName = uploadIndex.find(contentHash);
+    if (uploadedFileName.isPresent()) {
+      throw new InvalidSudokuException(
+          format(resourceBundle.getString("sudoku_exists_exception"), uploadedFileName.get()));
+    }
   }
 
   private void createFile(File uploadFile)
@@ -229,24 +393,11 @@ public class SudokuFileLoader {
       throws InvalidFileFormatException {
     try (final FileWriter fileWriter = new FileWriter(uploadFile, UTF_8, true);
         final BufferedWriter bufferedWriter = new BufferedWriter(fileWriter)) {
-      writeRow(sudokuBoard.unsolvedGrid(), bufferedWriter);
-      bufferedWriter.write(fileValidator.getGridSeparator());
-      bufferedWriter.newLine();
-      writeRow(sudokuBoard.solvedGrid(), bufferedWriter);
+      new SudokuFileWriter(fileValidator.getGridSeparator(), fileValidator.getEmptyGridCell())
+          .write(sudokuBoard, bufferedWriter);
     } catch (IOException e) {
       throw new InvalidFileFormatException(
           format(resourceBundle.getString("sudoku_upload_io_exception"), e.getMessage()));
     }
   }
-
-  private void writeRow(byte[][] grid, BufferedWriter bufferedWriter) throws IOException {
-    for (final byte[] currentRow : grid) {
-      final StringBuilder rowBuilder = new StringBuilder();
-      for (byte cell : currentRow) {
-        rowBuilder.append(cell);
-      }
-      bufferedWriter.write(rowBuilder.toString().replace('0', fileValidator.getEmptyGridCell()));
-      bufferedWriter.newLine();
-    }
-  }
 }
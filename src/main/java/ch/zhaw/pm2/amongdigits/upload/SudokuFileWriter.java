@@ -0,0 +1,56 @@
+package ch.zhaw.pm2.amongdigits.upload;
+
+import static java.util.Objects.requireNonNull;
+
+import ch.zhaw.pm2.amongdigits.SudokuBoard;
+import java.io.BufferedWriter;
+import java.io.IOException;
+
+/**
+ * This class writes a {@link SudokuBoard} in the text format read by {@link SudokuFileLoader}: the
+ * rows of the unsolved grid, a line holding the grid separator and the rows of the solved grid,
+ * with empty cells written as the empty grid cell character.
+ */
+public class SudokuFileWriter {
+
+  private final Character gridSeparator;
+  private final Character emptyGridCell;
+
+  /**
+   * Constructs a new {@code SudokuFileWriter} object with the specified parameters.
+   *
+   * @param gridSeparator the separator written between the unsolved and the solved grid
+   * @param emptyGridCell the character written for an empty cell in the grid
+   */
+  public SudokuFileWriter(final Character gridSeparator, final Character emptyGridCell) {
+    this.gridSeparator = requireNonNull(gridSeparator);
+    this.emptyGridCell = requireNonNull(emptyGridCell);
+  }
+
+  /**
+   * Writes the given {@link SudokuBoard} to the given writer.
+   *
+   * @param sudokuBoard the {@link SudokuBoard} to write
+   * @param bufferedWriter the writer to write to
+   * @throws IOException if an I/O error occurs while writing
+   */
+  public void write(final SudokuBoard sudokuBoard, final BufferedWriter bufferedWriter)
+      throws IOException {
+    writeRows(sudokuBoard.unsolvedGrid(), bufferedWriter);
+    bufferedWriter.write(gridSeparator);
+    bufferedWriter.newLine();
+    writeRows(sudokuBoard.solvedGrid(), bufferedWriter);
+  }
+
+  private void writeRows(final byte[][] grid, final BufferedWriter bufferedWriter)
+      throws IOException {
+    for (final byte[] currentRow : grid) {
+      final StringBuilder rowBuilder = new StringBuilder();
+      for (byte cell : currentRow) {
+        rowBuilder.append(cell);
+      }
+      bufferedWriter.write(rowBuilder.toString().replace('0', emptyGridCell));
+      bufferedWriter.newLine();
+    }
+  }
+}
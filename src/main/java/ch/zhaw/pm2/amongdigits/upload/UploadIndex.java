@@ -0,0 +1,121 @@
+package ch.zhaw.pm2.amongdigits.upload;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import ch.zhaw.pm2.amongdigits.utils.Canonicalizer;
+import ch.zhaw.pm2.amongdigits.utils.matrix.MatrixCodec;
+import ch.zhaw.pm2.amongdigits.utils.matrix.MatrixManager;
+import ch.zhaw.pm2.amongdigits.utils.schema.SchemaTypes;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The index of the uploaded Sudoku puzzles, which maps the content hash of every puzzle to the name
+ * of its file. The content hash is a 128-bit SHA-256 prefix of the packed canonical form of the
+ * puzzle, so copies of a puzzle with relabeled digits or permuted lines share it, and checking
+ * whether a puzzle was uploaded before is a single lookup.
+ *
+ * <p>The index is a text file with one line per upload, holding the content hash and the file name
+ * separated by a tab. Lines are only ever appended, a later line for the same hash replaces the
+ * earlier ones. The index is read on the first lookup. A puzzle counts as uploaded while it is in
+ * the index, the upload directory is not looked at.
+ */
+public class UploadIndex {
+
+  /** The file ending of index files. */
+  public static final String FILE_ENDING = ".index";
+
+  private static final String SEPARATOR = "\t";
+  private static final String HASH_ALGORITHM = "SHA-256";
+  private static final int HASH_BYTES = 16;
+
+  private final Path file;
+  private Map<String, String> fileNames;
+
+  /**
+   * Constructs a new UploadIndex kept in the given file.
+   *
+   * @param file the index file, which is created on the first upload
+   */
+  public UploadIndex(final Path file) {
+    this.file = file;
+  }
+
+  /**
+   * Returns the content hash of the given puzzle.
+   *
+   * @param grid the 9x9 grid of the puzzle, with {@code 0} for empty cells
+   * @return the content hash as 32 hexadecimal digits
+   * @throws IllegalArgumentException if the grid is not 9x9 or repeats a digit in a line
+   */
+  public static String getContentHash(final byte[][] grid) {
+    final MatrixManager canonical = new MatrixManager(SchemaTypes.SCHEMA_9X9);
+    canonical.setAll(Canonicalizer.canonicalize(grid));
+    try {
+      final byte[] digest =
+          MessageDigest.getInstance(HASH_ALGORITHM).digest(MatrixCodec.encode(canonical));
+      return HexFormat.of().formatHex(Arrays.copyOf(digest, HASH_BYTES));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(HASH_ALGORITHM + " is not available", e);
+    }
+  }
+
+  /**
+   * Returns the name of the file of the puzzle with the given content hash.
+   *
+   * @param contentHash the content hash of the puzzle
+   * @return the file name, or an empty optional if no such puzzle was uploaded
+   * @throws IOException if the index file cannot be read
+   */
+  public synchronized Optional<String> find(final String contentHash) throws IOException {
+    return Optional.ofNullable(getFileNames().get(contentHash));
+  }
+
+  /**
+   * Adds the puzzle with the given content hash and file name to the index.
+   *
+   * @param contentHash the content hash of the puzzle
+   * @param fileName the name of the file of the puzzle
+   * @throws IOException if the index file cannot be written
+   */
+  public synchronized void put(final String contentHash, final String fileName)
+      throws IOException {
+    Files.writeString(
+        file,
+        contentHash + SEPARATOR + fileName + System.lineSeparator(),
+        UTF_8,
+        CREATE,
+        WRITE,
+        APPEND);
+    if (fileNames != null) {
+      fileNames.put(contentHash, fileName);
+    }
+  }
+
+  private Map<String, String> getFileNames() throws IOException {
+    if (fileNames == null) {
+      final Map<String, String> loadedFileNames = new HashMap<>();
+      if (Files.exists(file)) {
+        for (String line : Files.readAllLines(file, UTF_8)) {
+          final int separator = line.indexOf(SEPARATOR);
+          if (separator > 0) {
+            loadedFileNames.put(line.substring(0, separator), line.substring(separator + 1));
+          }
+        }
+      }
+      fileNames = loadedFileNames;
+    }
+    return fileNames;
+  }
+}
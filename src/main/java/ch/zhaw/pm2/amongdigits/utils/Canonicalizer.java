@@ -0,0 +1,289 @@
+package ch.zhaw.pm2.amongdigits.utils;
+
+import static ch.zhaw.pm2.amongdigits.utils.SudokuConstants.SUDOKU_GRID_SIZE;
+
+import java.util.Arrays;
+
+/**
+ * Utility class that maps a 9x9 grid to the canonical representative of all grids that are
+ * equivalent to it under the transformations of {@link GridTransformer}: relabeling the digits,
+ * permuting the bands, the rows within each band, the stacks and the columns within each stack, and
+ * transposing. Two puzzles are copies of each other exactly if their canonical forms are equal, so
+ * the canonical form is the key to deduplicate catalogs and uploads with.
+ *
+ * <p>The canonical form is the minimal grid in lexicographic order of its rows, with empty cells
+ * as {@code 0} and the digits relabeled in order of their first appearance (minlex). It is built
+ * row by row: for every candidate, the next row is chosen among the rows its band order still
+ * allows, and only the candidates that produce the smallest row survive. Candidates that used the
+ * same rows and agree in column order and labels are merged. A puzzle takes well below a
+ * millisecond, a full grid a few milliseconds, as all of its rows tie for the first row.
+ */
+public final class Canonicalizer {
+
+  private static final int BLOCK_WIDTH = 3;
+  private static final int[][] ORDERS = {
+    {0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}
+  };
+  private static final int[][] COLUMN_PERMUTATIONS = createColumnPermutations();
+
+  private static final int LABEL_BITS = 4;
+  private static final long LABEL_MASK = (1L << LABEL_BITS) - 1;
+  private static final int LABELS_BITS = LABEL_BITS * SUDOKU_GRID_SIZE;
+  private static final int PERMUTATION_SHIFT = LABELS_BITS;
+  private static final int PERMUTATION_BITS = 11;
+  private static final int PERMUTATION_MASK = (1 << PERMUTATION_BITS) - 1;
+  private static final int ROWS_SHIFT = PERMUTATION_SHIFT + PERMUTATION_BITS;
+  private static final int ROWS_MASK = (1 << SUDOKU_GRID_SIZE) - 1;
+  private static final int TRANSPOSED_SHIFT = ROWS_SHIFT + SUDOKU_GRID_SIZE;
+  private static final long LABELS_MASK = (1L << LABELS_BITS) - 1;
+
+  private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+  private static final long FNV_PRIME = 0x100000001B3L;
+
+  /** The rows allowed next, at the start of a band and within a band, by the set of rows used. */
+  private static final int[][][] ALLOWED_ROWS = createAllowedRows();
+
+  private Canonicalizer() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  /**
+   * Returns the canonical form of the given grid.
+   *
+   * @param grid the 9x9 grid, with {@code 0} for empty cells
+   * @return the canonical form, a new grid
+   * @throws IllegalArgumentException if the grid is not 9x9 or repeats a digit in a line
+   */
+  public static byte[][] canonicalize(final byte[][] grid) {
+    if (grid.length != SUDOKU_GRID_SIZE
+        || Arrays.stream(grid).anyMatch(row -> row.length != SUDOKU_GRID_SIZE)) {
+      throw new IllegalArgumentException("Only 9x9 grids can be canonicalized");
+    }
+    final byte[][][] orientations = {grid, transpose(grid)};
+    if (hasRepeatedDigit(orientations[0]) || hasRepeatedDigit(orientations[1])) {
+      throw new IllegalArgumentException("A digit is repeated in a row or column");
+    }
+    final int[][] firstRows = getFirstRows(orientations);
+
+    // A candidate is packed into a long: whether it is transposed, the set of rows used, the
+    // index of its column permutation and the label of every digit.
+    long[] candidates = new long[2 * COLUMN_PERMUTATIONS.length];
+    int candidateCount = 0;
+    for (long transposed = 0; transposed < 2; transposed++) {
+      for (long permutation = 0; permutation < COLUMN_PERMUTATIONS.length; permutation++) {
+        candidates[candidateCount++] =
+            transposed << TRANSPOSED_SHIFT | permutation << PERMUTATION_SHIFT;
+      }
+    }
+
+    final byte[][] canonical = new byte[SUDOKU_GRID_SIZE][];
+    final byte[] row = new byte[SUDOKU_GRID_SIZE];
+    final byte[] labels = new byte[SUDOKU_GRID_SIZE + 1];
+    long[] next = new long[candidates.length];
+    for (int level = 0; level < SUDOKU_GRID_SIZE; level++) {
+      final int[][] allowedRows = ALLOWED_ROWS[level % BLOCK_WIDTH == 0 ? 0 : 1];
+      byte[] best = null;
+      int nextCount = 0;
+      for (int index = 0; index < candidateCount; index++) {
+        final long candidate = candidates[index];
+        final byte[][] source = orientations[(int) (candidate >>> TRANSPOSED_SHIFT)];
+        final int[] permutation =
+            COLUMN_PERMUTATIONS[(int) (candidate >>> PERMUTATION_SHIFT) & PERMUTATION_MASK];
+        final int[] sourceRows =
+            level == 0
+                ? firstRows[(int) (candidate >>> TRANSPOSED_SHIFT)]
+                : allowedRows[(int) (candidate >>> ROWS_SHIFT) & ROWS_MASK];
+        for (int sourceRow : sourceRows) {
+          int nextLabel = unpackLabels(candidate, labels) + 1;
+          int comparison = best == null ? -1 : 0;
+          for (int column = 0; column < SUDOKU_GRID_SIZE && comparison <= 0; column++) {
+            final byte value = source[sourceRow][permutation[column]];
+            if (value != 0 && labels[value] == 0) {
+              labels[value] = (byte) nextLabel++;
+            }
+            row[column] = labels[value];
+            if (comparison == 0) {
+              comparison = Byte.compare(row[column], best[column]);
+            }
+          }
+          if (comparison > 0) {
+            continue;
+          }
+          if (comparison < 0) {
+            best = row.clone();
+            nextCount = 0;
+          }
+          if (nextCount == next.length) {
+            next = Arrays.copyOf(next, 2 * next.length);
+          }
+          next[nextCount++] =
+              candidate & ~LABELS_MASK | 1L << (ROWS_SHIFT + sourceRow) | packLabels(labels);
+        }
+      }
+      canonical[level] = best;
+
+      // Candidates that reached the same state by different row orders are merged.
+      Arrays.sort(next, 0, nextCount);
+      candidateCount = 0;
+      for (int index = 0; index < nextCount; index++) {
+        if (index == 0 || next[index] != next[index - 1]) {
+          next[candidateCount++] = next[index];
+        }
+      }
+      final long[] swap = candidates;
+      candidates = next;
+      next = swap.length >= candidates.length ? swap : new long[candidates.length];
+    }
+    return canonical;
+  }
+
+  /**
+   * Returns a 64-bit hash of the canonical form of the given grid, which is equal for all
+   * equivalent grids.
+   *
+   * @param grid the 9x9 grid, with {@code 0} for empty cells
+   * @return the hash of the canonical form
+   * @throws IllegalArgumentException if the grid is not 9x9 or repeats a digit in a line
+   */
+  public static long hash(final byte[][] grid) {
+    long hash = FNV_OFFSET_BASIS;
+    for (byte[] row : canonicalize(grid)) {
+      for (byte cell : row) {
+        hash = (hash ^ cell) * FNV_PRIME;
+      }
+    }
+    // Spreads the bits of the FNV-1a hash, as its low bits depend little on the last cells.
+    hash = (hash ^ hash >>> 33) * 0xFF51AFD7ED558CCDL;
+    hash = (hash ^ hash >>> 33) * 0xC4CEB9FE1A85EC53L;
+    return hash ^ hash >>> 33;
+  }
+
+  /**
+   * Returns the rows of each orientation that can become the first row of the canonical form. As
+   * no digit is repeated within a row, the digits of the first row are labeled in the order they
+   * appear, so the row only depends on which of its cells are given. The smallest arrangement puts
+   * the stacks with fewer givens first and the empty cells of each stack before the given ones.
+   */
+  private static int[][] getFirstRows(final byte[][][] orientations) {
+    final int[][] shapes = new int[orientations.length][SUDOKU_GRID_SIZE];
+    int minimum = Integer.MAX_VALUE;
+    for (int orientation = 0; orientation < orientations.length; orientation++) {
+      for (int row = 0; row < SUDOKU_GRID_SIZE; row++) {
+        final int[] counts = new int[BLOCK_WIDTH];
+        for (int column = 0; column < SUDOKU_GRID_SIZE; column++) {
+          if (orientations[orientation][row][column] != 0) {
+            counts[column / BLOCK_WIDTH]++;
+          }
+        }
+        Arrays.sort(counts);
+        int shape = 0;
+        for (int count : counts) {
+          shape = shape << BLOCK_WIDTH | (1 << count) - 1;
+        }
+        shapes[orientation][row] = shape;
+        minimum = Math.min(minimum, shape);
+      }
+    }
+
+    final int[][] firstRows = new int[orientations.length][];
+    for (int orientation = 0; orientation < orientations.length; orientation++) {
+      final int[] rows = new int[SUDOKU_GRID_SIZE];
+      int count = 0;
+      for (int row = 0; row < SUDOKU_GRID_SIZE; row++) {
+        if (shapes[orientation][row] == minimum) {
+          rows[count++] = row;
+        }
+      }
+      firstRows[orientation] = Arrays.copyOf(rows, count);
+    }
+    return firstRows;
+  }
+
+  private static boolean hasRepeatedDigit(final byte[][] grid) {
+    for (byte[] row : grid) {
+      int seen = 0;
+      for (byte value : row) {
+        if (value != 0 && (seen & (1 << value)) != 0) {
+          return true;
+        }
+        seen |= 1 << value;
+      }
+    }
+    return false;
+  }
+
+  private static int[][][] createAllowedRows() {
+    final int[][][] allowedRows = new int[2][1 << SUDOKU_GRID_SIZE][];
+    for (int usedRows = 0; usedRows < 1 << SUDOKU_GRID_SIZE; usedRows++) {
+      allowedRows[0][usedRows] = getAllowedRows(usedRows, true);
+      allowedRows[1][usedRows] = getAllowedRows(usedRows, false);
+    }
+    return allowedRows;
+  }
+
+  private static int[] getAllowedRows(final int usedRows, final boolean isBandStart) {
+    final int[] allowedRows = new int[SUDOKU_GRID_SIZE];
+    int count = 0;
+    for (int band = 0; band < BLOCK_WIDTH; band++) {
+      final int bandRows = usedRows >>> (band * BLOCK_WIDTH) & ((1 << BLOCK_WIDTH) - 1);
+      final boolean isAllowed =
+          isBandStart ? bandRows == 0 : bandRows != 0 && bandRows != (1 << BLOCK_WIDTH) - 1;
+      for (int offset = 0; isAllowed && offset < BLOCK_WIDTH; offset++) {
+        if ((bandRows & (1 << offset)) == 0) {
+          allowedRows[count++] = band * BLOCK_WIDTH + offset;
+        }
+      }
+    }
+    return Arrays.copyOf(allowedRows, count);
+  }
+
+  private static int unpackLabels(final long candidate, final byte[] labels) {
+    int maximum = 0;
+    for (int digit = 1; digit <= SUDOKU_GRID_SIZE; digit++) {
+      labels[digit] = (byte) (candidate >>> ((digit - 1) * LABEL_BITS) & LABEL_MASK);
+      maximum = Math.max(maximum, labels[digit]);
+    }
+    return maximum;
+  }
+
+  private static long packLabels(final byte[] labels) {
+    long packed = 0;
+    for (int digit = 1; digit <= SUDOKU_GRID_SIZE; digit++) {
+      packed |= (long) labels[digit] << ((digit - 1) * LABEL_BITS);
+    }
+    return packed;
+  }
+
+  private static byte[][] transpose(final byte[][] grid) {
+    final byte[][] transposed = new byte[SUDOKU_GRID_SIZE][SUDOKU_GRID_SIZE];
+    for (int row = 0; row < SUDOKU_GRID_SIZE; row++) {
+      for (int column = 0; column < SUDOKU_GRID_SIZE; column++) {
+        transposed[column][row] = grid[row][column];
+      }
+    }
+    return transposed;
+  }
+
+  private static int[][] createColumnPermutations() {
+    final int[][] permutations = new int[(int) Math.pow(ORDERS.length, BLOCK_WIDTH + 1)][];
+    int index = 0;
+    for (int[] stacks : ORDERS) {
+      for (int[] first : ORDERS) {
+        for (int[] second : ORDERS) {
+          for (int[] third : ORDERS) {
+            final int[][] offsets = {first, second, third};
+            final int[] columns = new int[SUDOKU_GRID_SIZE];
+            for (int stack = 0; stack < BLOCK_WIDTH; stack++) {
+              for (int offset = 0; offset < BLOCK_WIDTH; offset++) {
+                columns[stack * BLOCK_WIDTH + offset] =
+                    stacks[stack] * BLOCK_WIDTH + offsets[stack][offset];
+              }
+            }
+            permutations[index++] = columns;
+          }
+        }
+      }
+    }
+    return permutations;
+  }
+}
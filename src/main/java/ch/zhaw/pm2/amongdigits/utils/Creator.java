@@ -2,6 +2,7 @@ package ch.zhaw.pm2.amongdigits.utils;
 
 import static ch.zhaw.pm2.amongdigits.utils.Creator.BacktrackingResult.CONTEST;
 import static ch.zhaw.pm2.amongdigits.utils.Creator.BacktrackingResult.CONTINUE;
+import static ch.zhaw.pm2.amongdigits.utils.Creator.BacktrackingResult.CUTOFF;
 import static ch.zhaw.pm2.amongdigits.utils.Creator.BacktrackingResult.FOUND;
 import static ch.zhaw.pm2.amongdigits.utils.matrix.MatrixManager.FreeCellResult.CONTRADICTION;
 import static ch.zhaw.pm2.amongdigits.utils.matrix.MatrixManager.FreeCellResult.NONE_FREE;
@@ -10,33 +11,49 @@ import ch.zhaw.pm2.amongdigits.DifficultyLevel;
 import ch.zhaw.pm2.amongdigits.utils.matrix.CachedMatrixManager;
 import ch.zhaw.pm2.amongdigits.utils.matrix.Matrix;
 import ch.zhaw.pm2.amongdigits.utils.matrix.MatrixManager;
+import ch.zhaw.pm2.amongdigits.utils.matrix.MatrixSnapshot;
 import ch.zhaw.pm2.amongdigits.utils.schema.Schema;
 import ch.zhaw.pm2.amongdigits.utils.schema.SchemaTypes;
 import ch.zhaw.pm2.amongdigits.utils.sudoku.Sudoku;
 import ch.zhaw.pm2.amongdigits.utils.sudoku.SudokuManager;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 /**
  * This class provides functionality to create a Sudoku puzzle with a given difficulty level. It
  * uses a cached matrix manager to create a full Sudoku matrix and then removes a certain number of
  * elements to generate the puzzle.
+ *
+ * <p>All randomness is drawn from a {@link SplittableRandom} that is created per call, so that the
+ * same seed always yields the same puzzle and concurrent calls never share generator state.
  */
 public final class Creator {
 
   private static final int SUDOKU_EMPTY_FIELDS_RANDOM = 10;
-  private static final Random RANDOM = new Random();
+  private static final int RATING_ATTEMPTS = 8;
+  private static final int RESTART_NODE_UNIT = 100;
 
   private final Function<Matrix, Boolean> resultConsumer;
   private final MatrixManager matrixManager;
   private final Schema schema;
+  private final SplittableRandom random;
   private Matrix winner;
+  private long remainingNodes = Long.MAX_VALUE;
 
-  private Creator(final Schema schema) {
+  private Creator(final Schema schema, final SplittableRandom random) {
     this.schema = schema;
+    this.random = random;
     matrixManager = new CachedMatrixManager(schema);
 
     resultConsumer =
@@ -53,34 +70,347 @@ public final class Creator {
    * @return a Sudoku puzzle with the given difficulty level
    */
   public static Sudoku createSudoku(final DifficultyLevel difficultyLevel) {
-    final Matrix fullMatrix = createFull();
+    return createSudoku(difficultyLevel, ThreadLocalRandom.current().nextLong());
+  }
+
+  /**
+   * Creates a Sudoku puzzle with the given difficulty level from the given seed. Calls with the
+   * same difficulty level and seed always return the same puzzle.
+   *
+   * @param difficultyLevel the difficulty level of the puzzle to create
+   * @param seed the seed of the random streams used to fill and clear the puzzle
+   * @return a Sudoku puzzle with the given difficulty level
+   */
+  public static Sudoku createSudoku(final DifficultyLevel difficultyLevel, final long seed) {
+    return createSudoku(difficultyLevel, seed, Symmetry.NONE);
+  }
+
+  /**
+   * Creates a Sudoku puzzle with the given difficulty level from the given seed, whose clue pattern
+   * follows the given symmetry. Numbers are cleared orbit by orbit, with a single uniqueness check
+   * per orbit. The number of cleared cells may stay one below the difficulty level's target if only
+   * orbits of two cells are left to clear.
+   *
+   * @param difficultyLevel the difficulty level of the puzzle to create
+   * @param seed the seed of the random streams used to fill and clear the puzzle
+   * @param symmetry the symmetry of the clue pattern
+   * @return a Sudoku puzzle with the given difficulty level and symmetry
+   */
+  public static Sudoku createSudoku(
+      final DifficultyLevel difficultyLevel, final long seed, final Symmetry symmetry) {
+    return createSudoku(difficultyLevel, seed, symmetry, false);
+  }
+
+  /**
+   * Creates a Sudoku puzzle with the given difficulty level from the given seed, whose clue pattern
+   * follows the given symmetry, optionally checking candidate cells in parallel.
+   *
+   * @param difficultyLevel the difficulty level of the puzzle to create
+   * @param seed the seed of the random streams used to fill and clear the puzzle
+   * @param symmetry the symmetry of the clue pattern
+   * @param parallel whether to check candidate cells in parallel
+   * @return a Sudoku puzzle with the given difficulty level and symmetry
+   * @see #generate(DifficultyLevel, long, Symmetry, boolean)
+   */
+  public static Sudoku createSudoku(
+      final DifficultyLevel difficultyLevel,
+      final long seed,
+      final Symmetry symmetry,
+      final boolean parallel) {
+    return generate(difficultyLevel, seed, symmetry, parallel).sudoku();
+  }
+
+  /**
+   * Generates a Sudoku puzzle with the given difficulty level from the given seed, together with
+   * its solution. The puzzle is the same as the one {@link #createSudoku(DifficultyLevel, long)}
+   * returns for the same seed.
+   *
+   * @param difficultyLevel the difficulty level of the puzzle to generate
+   * @param seed the seed of the random streams used to fill and clear the puzzle
+   * @return the puzzle, its solution and the statistics of the generation
+   */
+  public static GenerationResult generate(final DifficultyLevel difficultyLevel, final long seed) {
+    return generate(difficultyLevel, seed, Symmetry.NONE, false);
+  }
+
+  /**
+   * Generates a Sudoku puzzle with the given difficulty level from the given seed, whose clue
+   * pattern follows the given symmetry, together with its solution, optionally checking candidate
+   * cells in parallel.
+   *
+   * <p>In parallel mode, the sweep over the remaining cells checks a batch of orbits concurrently
+   * against a snapshot of the puzzle and commits the clearable ones in sweep order. An orbit that
+   * cannot be cleared from the snapshot cannot be cleared after further numbers are removed either,
+   * so only clearable results that follow an earlier commit of the same batch are checked again.
+   * The resulting puzzle is the same as in sequential mode.
+   *
+   * @param difficultyLevel the difficulty level of the puzzle to generate
+   * @param seed the seed of the random streams used to fill and clear the puzzle
+   * @param symmetry the symmetry of the clue pattern
+   * @param parallel whether to check candidate cells in parallel
+   * @return the puzzle, its solution and the statistics of the generation
+   */
+  public static GenerationResult generate(
+      final DifficultyLevel difficultyLevel,
+      final long seed,
+      final Symmetry symmetry,
+      final boolean parallel) {
+    final long start = System.nanoTime();
+    final SplittableRandom random = new SplittableRandom(seed);
+    final Matrix fullMatrix = createFull(random.split());
+    final int width = fullMatrix.getSchema().getWidth();
+    final long filled = System.nanoTime();
+
+    UniquenessChecker checker = new UniquenessChecker(fullMatrix);
+    int numbersToClear =
+        clearRandomly(
+            checker, difficultyLevel.getMaxNumbersToClear(), symmetry, random.split(), () -> {});
+
+    if (parallel) {
+      clearNumbersInParallel(checker, width, numbersToClear, symmetry);
+    } else {
+      clearNumbers(checker, width, numbersToClear, symmetry, () -> {});
+    }
+
+    return toResult(checker, fullMatrix, difficultyLevel, seed, filled - start, filled);
+  }
+
+  /**
+   * Generates a Sudoku puzzle with the given difficulty level from the given seed in two steps. The
+   * puzzle left after the random clearing phase is returned at once and can already be played, as
+   * its solution is unique. Clearing then continues on the given executor, and the refined puzzle
+   * the returned future completes with is the same as the one {@link #generate(DifficultyLevel,
+   * long)} returns for the same seed.
+   *
+   * @param difficultyLevel the difficulty level of the puzzle to generate
+   * @param seed the seed of the random streams used to fill and clear the puzzle
+   * @param executor the executor to continue clearing numbers on
+   * @return the playable result and the future of the refined result
+   */
+  public static ProgressiveSudoku createSudokuProgressively(
+      final DifficultyLevel difficultyLevel, final long seed, final Executor executor) {
+    final long start = System.nanoTime();
+    final SplittableRandom random = new SplittableRandom(seed);
+    final Matrix fullMatrix = createFull(random.split());
+    final int width = fullMatrix.getSchema().getWidth();
+    final long filled = System.nanoTime();
+
+    UniquenessChecker checker = new UniquenessChecker(fullMatrix);
+    final int numbersToClear =
+        clearRandomly(
+            checker,
+            difficultyLevel.getMaxNumbersToClear(),
+            Symmetry.NONE,
+            random.split(),
+            () -> {});
+
+    final GenerationResult result =
+        toResult(checker, fullMatrix, difficultyLevel, seed, filled - start, filled);
+    final CompletableFuture<GenerationResult> refinedResult =
+        CompletableFuture.supplyAsync(
+            () -> {
+              clearNumbers(checker, width, numbersToClear, Symmetry.NONE, () -> {});
+              return toResult(checker, fullMatrix, difficultyLevel, seed, filled - start, filled);
+            },
+            executor);
+
+    return new ProgressiveSudoku(result, refinedResult);
+  }
+
+  /**
+   * Generates a Sudoku puzzle for every difficulty level from the given seed in a single pass.
+   * Since clearing numbers only ever adds solutions and the numbers to clear of the difficulty
+   * levels are nested, one full matrix is dug towards the target of the hardest level, and the
+   * puzzle is taken as a snapshot whenever the number of cleared cells reaches the target of a
+   * level. Levels whose target is not reached get the final puzzle of the pass.
+   *
+   * @param seed the seed of the random streams used to fill and clear the puzzles
+   * @return a result for every difficulty level, all sharing the same solution
+   */
+  public static Map<DifficultyLevel, GenerationResult> generateAllLevels(final long seed) {
+    final long start = System.nanoTime();
+    final SplittableRandom random = new SplittableRandom(seed);
+    final Matrix fullMatrix = createFull(random.split());
     final Schema schema = fullMatrix.getSchema();
-    final int width = schema.getWidth();
-    final byte unset = schema.getUnsetValue();
+    final long filled = System.nanoTime();
+
+    final UniquenessChecker checker = new UniquenessChecker(fullMatrix);
+    final Map<DifficultyLevel, GenerationResult> results = new EnumMap<>(DifficultyLevel.class);
+    final Runnable snapshot =
+        () -> {
+          int clearedCount = schema.getTotalFields() - checker.getPuzzle().getSetCount();
+          for (DifficultyLevel difficultyLevel : DifficultyLevel.values()) {
+            if (difficultyLevel.getMaxNumbersToClear() == clearedCount) {
+              results.put(
+                  difficultyLevel,
+                  toResult(checker, fullMatrix, difficultyLevel, seed, filled - start, filled));
+            }
+          }
+        };
 
-    SudokuManager sudokuManager = new SudokuManager(schema);
-    sudokuManager.setAll(fullMatrix.getAll());
+    final int maxNumbersToClear =
+        Arrays.stream(DifficultyLevel.values())
+            .mapToInt(DifficultyLevel::getMaxNumbersToClear)
+            .max()
+            .orElse(0);
+    int numbersToClear =
+        clearRandomly(checker, maxNumbersToClear, Symmetry.NONE, random.split(), snapshot);
+    clearNumbers(checker, schema.getWidth(), numbersToClear, Symmetry.NONE, snapshot);
+
+    for (DifficultyLevel difficultyLevel : DifficultyLevel.values()) {
+      if (!results.containsKey(difficultyLevel)) {
+        results.put(
+            difficultyLevel,
+            toResult(checker, fullMatrix, difficultyLevel, seed, filled - start, filled));
+      }
+    }
 
-    int numbersToClear = difficultyLevel.getMaxNumbersToClear();
-    int randomClearCount = 0;
+    return results;
+  }
 
-    while (numbersToClear > 0 && randomClearCount < SUDOKU_EMPTY_FIELDS_RANDOM) {
-      int i = RANDOM.nextInt(width);
-      int j = RANDOM.nextInt(width);
-      if (sudokuManager.get(j, i) != schema.getUnsetValue()) {
-        if (isClearable(sudokuManager, j, i)) {
-          sudokuManager.set(j, i, schema.getUnsetValue());
-          numbersToClear--;
-        } else {
-          randomClearCount++;
-        }
+  /**
+   * Generates a Sudoku puzzle with the given difficulty level from the given seed, trying to reach
+   * the level's number of cleared cells even where random clearing gets stuck above it, as it
+   * mostly does for low numbers of givens. The numbers are cleared by a {@link LowClueSearch} on a
+   * single full matrix until the target is reached or the time budget is used up. Whether the
+   * target was reached is reported by {@link GenerationResult#isTargetReached()}.
+   *
+   * @param difficultyLevel the difficulty level of the puzzle to generate
+   * @param seed the seed of the random streams used to fill and clear the puzzle
+   * @param timeBudget the time after which the search stops with the best puzzle found so far
+   * @return the puzzle with the most cleared cells found, its solution and the statistics
+   */
+  public static GenerationResult generateLowClue(
+      final DifficultyLevel difficultyLevel, final long seed, final Duration timeBudget) {
+    final long start = System.nanoTime();
+    final SplittableRandom random = new SplittableRandom(seed);
+    final Matrix fullMatrix = createFull(random.split());
+    final long filled = System.nanoTime();
+
+    final CachedMatrixManager puzzle =
+        new LowClueSearch(fullMatrix, random.split())
+            .search(difficultyLevel.getMaxNumbersToClear(), filled + timeBudget.toNanos());
+
+    return new GenerationResult(
+        toSudoku(puzzle),
+        fullMatrix,
+        difficultyLevel,
+        puzzle.getSchema().getTotalFields() - puzzle.getSetCount(),
+        seed,
+        filled - start,
+        System.nanoTime() - filled);
+  }
+
+  /**
+   * Creates a minimal Sudoku puzzle, from which no further number can be cleared without losing the
+   * uniqueness of the solution.
+   *
+   * @return a minimal Sudoku puzzle
+   */
+  public static Sudoku createMinimalSudoku() {
+    return createMinimalSudoku(ThreadLocalRandom.current().nextLong());
+  }
+
+  /**
+   * Creates a minimal Sudoku puzzle from the given seed. Every cell is visited once in random order
+   * and cleared if the puzzle stays unique. Since clearing numbers only ever adds solutions, a cell
+   * that cannot be cleared at its turn cannot be cleared later either, so a single pass suffices.
+   *
+   * @param seed the seed of the random streams used to fill and clear the puzzle
+   * @return a minimal Sudoku puzzle
+   */
+  public static Sudoku createMinimalSudoku(final long seed) {
+    final SplittableRandom random = new SplittableRandom(seed);
+    final Matrix fullMatrix = createFull(random.split());
+    final int width = fullMatrix.getSchema().getWidth();
+
+    UniquenessChecker checker = new UniquenessChecker(fullMatrix);
+    for (int cell : createCellOrder(width, random.split())) {
+      int row = cell / width;
+      int column = cell % width;
+      if (checker.isClearable(row, column)) {
+        checker.clear(row, column);
       }
     }
 
-    clearNumbers(sudokuManager, width, unset, numbersToClear);
-    setWritableCells(sudokuManager, width, unset);
+    return toSudoku(checker.getPuzzle());
+  }
 
-    return sudokuManager;
+  /**
+   * Generates a Sudoku puzzle whose solving effort rating lies within the rating band of the given
+   * difficulty level, together with its solution.
+   *
+   * @param difficultyLevel the difficulty level of the puzzle to generate
+   * @return the puzzle rated within the given difficulty level, its solution and the statistics
+   */
+  public static GenerationResult generateRated(final DifficultyLevel difficultyLevel) {
+    return generateRated(difficultyLevel, ThreadLocalRandom.current().nextLong());
+  }
+
+  /**
+   * Generates a Sudoku puzzle from the given seed whose solving effort rating lies within the
+   * rating band of the given difficulty level, together with its solution. Numbers are cleared in
+   * random order and the puzzle is re-rated in place after every clear. A clear that pushes the
+   * rating above the band is undone, and clearing stops as soon as the rating enters the band. If a
+   * full grid runs out of clearable numbers before that, the next attempt starts from a new grid.
+   * After {@link #RATING_ATTEMPTS} attempts the highest rated puzzle below the band is returned.
+   * The timings of the result cover all attempts.
+   *
+   * @param difficultyLevel the difficulty level of the puzzle to generate
+   * @param seed the seed of the random streams used to fill and clear the puzzle
+   * @return the puzzle rated within the given difficulty level, or as close as reached, its
+   *     solution and the statistics of the generation
+   */
+  public static GenerationResult generateRated(
+      final DifficultyLevel difficultyLevel, final long seed) {
+    final long start = System.nanoTime();
+    final SplittableRandom random = new SplittableRandom(seed);
+    long fillNanos = 0;
+    GenerationResult bestResult = null;
+    int bestRating = -1;
+
+    for (int attempt = 0; attempt < RATING_ATTEMPTS; attempt++) {
+      final long attemptStart = System.nanoTime();
+      final Matrix fullMatrix = createFull(random.split());
+      final int width = fullMatrix.getSchema().getWidth();
+      fillNanos += System.nanoTime() - attemptStart;
+
+      UniquenessChecker checker = new UniquenessChecker(fullMatrix);
+      DifficultyRater rater = new DifficultyRater(fullMatrix);
+      int rating = 0;
+      for (int cell : createCellOrder(width, random.split())) {
+        int row = cell / width;
+        int column = cell % width;
+        if (rating < difficultyLevel.getMinRating() && checker.isClearable(row, column)) {
+          byte value = checker.getPuzzle().get(row, column);
+          checker.clear(row, column);
+          int clearedRating = rater.rate(checker.getPuzzle());
+          if (clearedRating > difficultyLevel.getMaxRating()) {
+            checker.restore(row, column, value);
+          } else {
+            rating = clearedRating;
+          }
+        }
+      }
+
+      if (rating >= difficultyLevel.getMinRating()) {
+        return toResult(checker, fullMatrix, difficultyLevel, seed, fillNanos, start + fillNanos);
+      }
+      if (rating > bestRating) {
+        bestResult =
+            toResult(checker, fullMatrix, difficultyLevel, seed, fillNanos, start + fillNanos);
+        bestRating = rating;
+      }
+    }
+
+    return new GenerationResult(
+        bestResult.sudoku(),
+        bestResult.solution(),
+        difficultyLevel,
+        bestResult.clearedCount(),
+        seed,
+        fillNanos,
+        System.nanoTime() - start - fillNanos);
   }
 
   /**
@@ -89,16 +419,31 @@ public final class Creator {
    * @return a full Sudoku matrix
    */
   static Matrix createFull() {
+    return createFull(new SplittableRandom());
+  }
+
+  /**
+   * Creates a full Sudoku matrix using the given random stream to fill the diagonal blocks and to
+   * order the values tried by the backtracking. Each attempt is cut off after a node budget that
+   * grows along the Luby sequence, after which the diagonal blocks are filled anew, so a bad start
+   * cannot hold up the creation for long.
+   *
+   * @param random the random stream to draw from
+   * @return a full Sudoku matrix
+   */
+  static Matrix createFull(final SplittableRandom random) {
     Schema schema = SchemaTypes.SCHEMA_9X9;
-    Creator creator = new Creator(schema);
+    Creator creator = new Creator(schema, random);
 
     BacktrackingResult backtrackingResult;
+    int restart = 0;
     do {
       creator.matrixManager.clear();
       for (int i = 0; i < creator.matrixManager.getSchema().getBlockCount(); i++) {
         creator.fillBlock(i * schema.getBlockWidth(), i * schema.getBlockWidth());
       }
 
+      creator.remainingNodes = (long) RESTART_NODE_UNIT * luby(++restart);
       backtrackingResult =
           creator.backtrack(
               schema.getTotalFields() - creator.matrixManager.getSetCount(), new int[2]);
@@ -107,6 +452,28 @@ public final class Creator {
     return creator.winner;
   }
 
+  /**
+   * Returns the element of the Luby sequence 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, ... at the given index.
+   * The sequence bounds the work of each restart while still giving every start enough nodes in
+   * the long run.
+   *
+   * @param index the index of the element, starting at 1
+   * @return the element at the given index
+   */
+  static int luby(final int index) {
+    int i = index;
+    while (true) {
+      int k = 1;
+      while ((1 << k) - 1 < i) {
+        k++;
+      }
+      if (i == (1 << k) - 1) {
+        return 1 << (k - 1);
+      }
+      i -= (1 << (k - 1)) - 1;
+    }
+  }
+
   /**
    * Creates an array of numbers to distribute across the Sudoku matrix.
    *
@@ -115,22 +482,37 @@ public final class Creator {
    * @return an array of numbers to distribute across the Sudoku matrix
    */
   static byte[] createNumbersToDistribute(final Schema schema, final int multiplicity) {
+    return createNumbersToDistribute(schema, multiplicity, new SplittableRandom());
+  }
+
+  /**
+   * Creates an array of numbers to distribute across the Sudoku matrix, shuffled with the given
+   * random stream.
+   *
+   * @param schema the schema of the Sudoku matrix
+   * @param multiplicity the multiplicity of each number to distribute
+   * @param random the random stream used to shuffle the numbers
+   * @return an array of numbers to distribute across the Sudoku matrix
+   */
+  static byte[] createNumbersToDistribute(
+      final Schema schema, final int multiplicity, final SplittableRandom random) {
     int totalNumbers = schema.getMaximumValue() - schema.getMinimumValue() + 1;
-    List<Integer> numbersToDistribute = new ArrayList<>(totalNumbers * multiplicity);
+    byte[] numbersToDistribute = new byte[totalNumbers * multiplicity];
+    int k = 0;
     for (int number = schema.getMinimumValue(); number <= schema.getMaximumValue(); number++) {
       for (int j = 0; j < multiplicity; j++) {
-        numbersToDistribute.add(number);
+        numbersToDistribute[k++] = (byte) number;
       }
     }
 
-    Collections.shuffle(numbersToDistribute);
-    byte[] numbersToDistributeArray = new byte[numbersToDistribute.size()];
-    int k = 0;
-    for (Integer number : numbersToDistribute) {
-      numbersToDistributeArray[k++] = number.byteValue();
+    for (int i = numbersToDistribute.length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      byte swap = numbersToDistribute[i];
+      numbersToDistribute[i] = numbersToDistribute[j];
+      numbersToDistribute[j] = swap;
     }
 
-    return numbersToDistributeArray;
+    return numbersToDistribute;
   }
 
   /**
@@ -159,49 +541,152 @@ public final class Creator {
     return -1;
   }
 
-  private static boolean isClearable(
-      final SudokuManager sudokuManager, final int row, final int column) {
-    Schema schema = sudokuManager.getSchema();
-    assert sudokuManager.get(row, column) != schema.getUnsetValue();
-
-    int freeMask = sudokuManager.getFreeMask(row, column);
-    int freeValues = Integer.bitCount(freeMask);
-    if (freeValues == 0) {
-      return true;
+  private static int[] createCellOrder(final int width, final SplittableRandom random) {
+    int[] cells = new int[width * width];
+    for (int i = 0; i < cells.length; i++) {
+      cells[i] = i;
     }
 
-    int oldSudoku = sudokuManager.get(row, column);
-    sudokuManager.set(row, column, schema.getUnsetValue());
-
-    List<Matrix> results = Solver.solve(sudokuManager, 2);
-    boolean result = results.size() == 1;
+    for (int i = cells.length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int swap = cells[i];
+      cells[i] = cells[j];
+      cells[j] = swap;
+    }
 
-    sudokuManager.set(row, column, (byte) oldSudoku);
-    return result;
+    return cells;
   }
 
   private static void clearNumbers(
-      SudokuManager sudokuManager, int width, byte unset, int numbersToClear) {
+      UniquenessChecker checker,
+      int width,
+      int numbersToClear,
+      Symmetry symmetry,
+      Runnable clearListener) {
     for (int i = 0; i < width; i++) {
       for (int j = 0; j < width; j++) {
-        if (numbersToClear > 0
-            && unset != sudokuManager.get(j, i)
-            && isClearable(sudokuManager, j, i)) {
-          sudokuManager.set(j, i, unset);
-          numbersToClear--;
+        int[] orbit = symmetry.getOrbit(j, i, width);
+        if (orbit.length <= numbersToClear
+            && checker.isSet(orbit)
+            && checker.isClearable(orbit)) {
+          checker.clear(orbit);
+          numbersToClear -= orbit.length;
+          clearListener.run();
         }
       }
     }
   }
 
-  private static void setWritableCells(SudokuManager sudokuManager, int width, byte unset) {
+  private static void clearNumbersInParallel(
+      UniquenessChecker checker, int width, int numbersToClear, Symmetry symmetry) {
+    final List<int[]> orbits = new ArrayList<>();
+    final boolean[] listed = new boolean[width * width];
     for (int i = 0; i < width; i++) {
       for (int j = 0; j < width; j++) {
-        sudokuManager.setWritable(j, i, sudokuManager.get(j, i) == unset);
+        int[] orbit = symmetry.getOrbit(j, i, width);
+        if (!listed[orbit[0]]) {
+          for (int cell : orbit) {
+            listed[cell] = true;
+          }
+          orbits.add(orbit);
+        }
+      }
+    }
+
+    final int batchSize = ForkJoinPool.getCommonPoolParallelism() + 1;
+    int next = 0;
+    while (numbersToClear > 0 && next < orbits.size()) {
+      final List<int[]> batch = new ArrayList<>(batchSize);
+      while (batch.size() < batchSize && next < orbits.size()) {
+        int[] orbit = orbits.get(next++);
+        if (checker.isSet(orbit)) {
+          batch.add(orbit);
+        }
+      }
+
+      final MatrixSnapshot snapshot = checker.getPuzzle().snapshot();
+      final boolean[] clearable = new boolean[batch.size()];
+      IntStream.range(0, batch.size())
+          .parallel()
+          .forEach(k -> clearable[k] = new UniquenessChecker(snapshot).isClearable(batch.get(k)));
+
+      boolean committed = false;
+      for (int k = 0; k < batch.size(); k++) {
+        int[] orbit = batch.get(k);
+        if (clearable[k]
+            && orbit.length <= numbersToClear
+            && (!committed || checker.isClearable(orbit))) {
+          checker.clear(orbit);
+          numbersToClear -= orbit.length;
+          committed = true;
+        }
       }
     }
   }
 
+  private static int clearRandomly(
+      final UniquenessChecker checker,
+      final int maxNumbersToClear,
+      final Symmetry symmetry,
+      final SplittableRandom clearRandom,
+      final Runnable clearListener) {
+    final int width = checker.getPuzzle().getSchema().getWidth();
+    int numbersToClear = maxNumbersToClear;
+    int randomClearCount = 0;
+
+    while (numbersToClear > 0 && randomClearCount < SUDOKU_EMPTY_FIELDS_RANDOM) {
+      int i = clearRandom.nextInt(width);
+      int j = clearRandom.nextInt(width);
+      int[] orbit = symmetry.getOrbit(j, i, width);
+      if (checker.isSet(orbit)) {
+        // An orbit longer than the numbers left to clear counts as a failed pick, otherwise the
+        // loop would never end once no set orbit fits any more.
+        if (orbit.length <= numbersToClear && checker.isClearable(orbit)) {
+          checker.clear(orbit);
+          numbersToClear -= orbit.length;
+          clearListener.run();
+        } else {
+          randomClearCount++;
+        }
+      }
+    }
+
+    return numbersToClear;
+  }
+
+  private static GenerationResult toResult(
+      final UniquenessChecker checker,
+      final Matrix solution,
+      final DifficultyLevel difficultyLevel,
+      final long seed,
+      final long fillNanos,
+      final long clearStart) {
+    final CachedMatrixManager puzzle = checker.getPuzzle();
+    return new GenerationResult(
+        toSudoku(puzzle),
+        solution,
+        difficultyLevel,
+        puzzle.getSchema().getTotalFields() - puzzle.getSetCount(),
+        seed,
+        fillNanos,
+        System.nanoTime() - clearStart);
+  }
+
+  private static Sudoku toSudoku(final Matrix puzzle) {
+    final Schema schema = puzzle.getSchema();
+    final int width = schema.getWidth();
+
+    SudokuManager sudokuManager = new SudokuManager(schema);
+    sudokuManager.copyFrom(puzzle);
+    for (int i = 0; i < width; i++) {
+      for (int j = 0; j < width; j++) {
+        sudokuManager.setWritable(j, i, sudokuManager.get(j, i) == schema.getUnsetValue());
+      }
+    }
+
+    return sudokuManager;
+  }
+
   private void fillBlock(final int row, final int column) {
     final int blockSize = schema.getBlockWidth();
 
@@ -209,7 +694,7 @@ public final class Creator {
     assert row % blockSize == 0;
     assert column % blockSize == 0;
 
-    byte[] numbers = createNumbersToDistribute(schema, 1);
+    byte[] numbers = createNumbersToDistribute(schema, 1, random);
     int k = 0;
     for (int colOfs = 0; colOfs < blockSize; colOfs++) {
       for (int rowOfs = 0; rowOfs < blockSize; rowOfs++) {
@@ -228,6 +713,10 @@ public final class Creator {
       }
     }
 
+    if (--remainingNodes < 0) {
+      return CUTOFF;
+    }
+
     MatrixManager.FreeCellResult result = matrixManager.findLeastFreeCell(minimumCell);
     if (result == CONTRADICTION || result == NONE_FREE) {
       return CONTEST;
@@ -236,17 +725,15 @@ public final class Creator {
     int minimumRow = minimumCell[0];
     int minimumColumn = minimumCell[1];
     int minimumFree = matrixManager.getFreeMask(minimumRow, minimumColumn);
-    int minimumBits = Integer.bitCount(minimumFree);
 
-    for (int bit = 0; bit < minimumBits; bit++) {
-      int number = getSetBitOffset(minimumFree, bit);
+    for (int number : shuffleSetBits(minimumFree)) {
       assert number >= schema.getMinimumValue() && number <= schema.getMaximumValue();
       assert (matrixManager.getFreeMask(minimumRow, minimumColumn) & (1 << number)) == 1 << number;
 
       matrixManager.set(minimumRow, minimumColumn, (byte) (number));
       assert (matrixManager.getFreeMask(minimumRow, minimumColumn) & (1 << number)) == 0;
       BacktrackingResult subResult = backtrack(numbersToDistribute - 1, minimumCell);
-      if (subResult == FOUND) {
+      if (subResult == FOUND || subResult == CUTOFF) {
         return subResult;
       }
     }
@@ -255,10 +742,30 @@ public final class Creator {
     return CONTINUE;
   }
 
+  /** Returns the offsets of the set bits of the given mask in a random order. */
+  private int[] shuffleSetBits(final int mask) {
+    int[] offsets = new int[Integer.bitCount(mask)];
+    int workingMask = mask;
+    for (int k = 0; workingMask != 0; k++) {
+      offsets[k] = Integer.numberOfTrailingZeros(workingMask);
+      workingMask &= workingMask - 1;
+    }
+
+    for (int i = offsets.length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int swap = offsets[i];
+      offsets[i] = offsets[j];
+      offsets[j] = swap;
+    }
+
+    return offsets;
+  }
+
   /** The result of a backtracking operation. */
   enum BacktrackingResult {
     FOUND,
     CONTINUE,
-    CONTEST
+    CONTEST,
+    CUTOFF
   }
 }
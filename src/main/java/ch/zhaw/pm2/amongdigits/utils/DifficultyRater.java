@@ -0,0 +1,106 @@
+package ch.zhaw.pm2.amongdigits.utils;
+
+import ch.zhaw.pm2.amongdigits.utils.matrix.CachedMatrixManager;
+import ch.zhaw.pm2.amongdigits.utils.matrix.Matrix;
+import ch.zhaw.pm2.amongdigits.utils.schema.Schema;
+
+/**
+ * This class rates a puzzle by the effort it takes to solve it. The puzzle is solved step by step,
+ * preferring naked singles over hidden singles. Whenever neither applies, the cell with the fewest
+ * candidates is filled with its value from the known solution and the guess is charged by the
+ * number of wrong candidates it rules out. The rating is the sum of the efforts of all steps.
+ *
+ * <p>The puzzle is solved in place and restored before the rating is returned, so a generator can
+ * rate the same cached matrix over and over while clearing numbers from it.
+ */
+final class DifficultyRater {
+
+  /** The effort of filling a cell that has only one candidate left. */
+  static final int NAKED_SINGLE_EFFORT = 1;
+
+  /** The effort of filling the only cell of a row, column or block that can hold a value. */
+  static final int HIDDEN_SINGLE_EFFORT = 3;
+
+  /** The effort of each wrong candidate of a cell that had to be guessed. */
+  static final int GUESS_EFFORT = 25;
+
+  private final Schema schema;
+  private final byte[][] solution;
+  private final SingleFinder singleFinder;
+  private final int[] trail;
+
+  /**
+   * Constructs a new DifficultyRater for puzzles with the given solution.
+   *
+   * @param solution the full matrix all rated puzzles are a subset of
+   */
+  DifficultyRater(final Matrix solution) {
+    schema = solution.getSchema();
+    this.solution = solution.getAll();
+    singleFinder = new SingleFinder(schema);
+    trail = new int[schema.getTotalFields()];
+  }
+
+  /**
+   * Rates the given puzzle by the effort it takes to solve it. The puzzle is unchanged when the
+   * method returns.
+   *
+   * @param puzzle the puzzle to rate, which must be a subset of the solution
+   * @return the rating of the puzzle, higher is harder
+   */
+  int rate(final CachedMatrixManager puzzle) {
+    final int width = schema.getWidth();
+    final int[] single = new int[2];
+    int rating = 0;
+    int trailSize = 0;
+
+    while (puzzle.getSetCount() < schema.getTotalFields()) {
+      int cell;
+      if (singleFinder.findNakedSingle(puzzle, single)) {
+        cell = single[0];
+        rating += NAKED_SINGLE_EFFORT;
+      } else {
+        if (singleFinder.findHiddenSingle(puzzle, single)) {
+          cell = single[0];
+          rating += HIDDEN_SINGLE_EFFORT;
+        } else {
+          cell = findLeastFreeCell(puzzle);
+          int candidates = Integer.bitCount(puzzle.getFreeMask(cell / width, cell % width));
+          rating += GUESS_EFFORT * (candidates - 1);
+        }
+      }
+
+      puzzle.set(cell / width, cell % width, solution[cell / width][cell % width]);
+      trail[trailSize++] = cell;
+    }
+
+    while (trailSize > 0) {
+      int cell = trail[--trailSize];
+      puzzle.set(cell / width, cell % width, schema.getUnsetValue());
+    }
+
+    return rating;
+  }
+
+  private int findLeastFreeCell(final CachedMatrixManager puzzle) {
+    final int width = schema.getWidth();
+    final byte unset = schema.getUnsetValue();
+    int minimumCell = -1;
+    int minimumBits = Integer.MAX_VALUE;
+
+    for (int cell = 0; cell < schema.getTotalFields(); cell++) {
+      int row = cell / width;
+      int column = cell % width;
+      if (puzzle.get(row, column) == unset) {
+        int bits = Integer.bitCount(puzzle.getFreeMask(row, column));
+        if (bits < minimumBits) {
+          minimumCell = cell;
+          minimumBits = bits;
+        }
+      }
+    }
+
+    assert minimumCell >= 0;
+    return minimumCell;
+  }
+}
@@ -0,0 +1,67 @@
+package ch.zhaw.pm2.amongdigits.utils;
+
+import ch.zhaw.pm2.amongdigits.DifficultyLevel;
+
+/**
+ * Utility class that warms up the puzzle engine right after launch. Until the just-in-time
+ * compiler has seen the hot loops of the creator and the solver, they run interpreted and the
+ * first generated puzzle takes several times longer than later ones. The warm-up generates and
+ * solves a few puzzles of every difficulty level with fixed seeds on a daemon thread with the
+ * lowest priority, so it only uses otherwise idle cores.
+ */
+public final class EngineWarmUp {
+
+  /** The number of puzzles generated and solved per difficulty level. */
+  static final int WARM_UP_ROUNDS = 10;
+
+  private static volatile State state = State.DISABLED;
+
+  private EngineWarmUp() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  /**
+   * Starts the warm-up in the background.
+   *
+   * @return the thread running the warm-up
+   */
+  public static Thread start() {
+    final Thread thread = new Thread(EngineWarmUp::run, "engine-warm-up");
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MIN_PRIORITY);
+    state = State.RUNNING;
+    thread.start();
+    return thread;
+  }
+
+  /** Generates and solves the warm-up puzzles on the calling thread. */
+  public static void run() {
+    state = State.RUNNING;
+    for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+      for (DifficultyLevel difficultyLevel : DifficultyLevel.values()) {
+        GenerationResult result = Creator.generate(difficultyLevel, round);
+        Solver.solve(result.sudoku(), Solver.MAX_SOLUTIONS + 1);
+      }
+    }
+    state = State.DONE;
+  }
+
+  /**
+   * Returns the state of the warm-up in this process.
+   *
+   * @return the state of the warm-up
+   */
+  public static State getState() {
+    return state;
+  }
+
+  /** The states of the warm-up in a process. */
+  public enum State {
+    /** No warm-up has been started. */
+    DISABLED,
+    /** A warm-up has been started and is not finished yet. */
+    RUNNING,
+    /** A warm-up has finished. */
+    DONE
+  }
+}
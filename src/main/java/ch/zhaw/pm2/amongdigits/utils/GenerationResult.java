@@ -0,0 +1,40 @@
+package ch.zhaw.pm2.amongdigits.utils;
+
+import ch.zhaw.pm2.amongdigits.DifficultyLevel;
+import ch.zhaw.pm2.amongdigits.SudokuBoard;
+import ch.zhaw.pm2.amongdigits.utils.matrix.Matrix;
+import ch.zhaw.pm2.amongdigits.utils.sudoku.Sudoku;
+
+/**
+ * A record that represents the result of generating a Sudoku puzzle. Besides the puzzle, it holds
+ * the full matrix the numbers were cleared from, which is the puzzle's only solution, so the
+ * puzzle never has to be solved again. It also holds the number of cleared cells, the seed the
+ * puzzle was generated from and the time spent filling the full matrix and clearing numbers.
+ */
+public record GenerationResult(
+    Sudoku sudoku,
+    Matrix solution,
+    DifficultyLevel difficultyLevel,
+    int clearedCount,
+    long seed,
+    long fillNanos,
+    long clearNanos) {
+
+  /**
+   * Checks whether as many numbers were cleared as the difficulty level allows.
+   *
+   * @return true if the target number of cleared cells was reached, false otherwise
+   */
+  public boolean isTargetReached() {
+    return clearedCount >= difficultyLevel.getMaxNumbersToClear();
+  }
+
+  /**
+   * Creates a {@link SudokuBoard} from the puzzle and its solution.
+   *
+   * @return a {@link SudokuBoard} holding the puzzle, its solution and the difficulty level
+   */
+  public SudokuBoard toSudokuBoard() {
+    return new SudokuBoard(sudoku.getAll(), solution.getAll(), difficultyLevel);
+  }
+}
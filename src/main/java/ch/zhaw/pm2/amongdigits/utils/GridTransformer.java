@@ -0,0 +1,93 @@
+package ch.zhaw.pm2.amongdigits.utils;
+
+import ch.zhaw.pm2.amongdigits.SudokuBoard;
+import java.util.SplittableRandom;
+
+/**
+ * Utility class that turns a Sudoku board into an equivalent one that looks different. The digits
+ * are relabeled, the bands and the rows within each band as well as the stacks and the columns
+ * within each stack are permuted, and the grid is optionally transposed. All of these keep rows,
+ * columns and blocks intact, so the transformed puzzle has exactly as many givens and solutions as
+ * the original one and its solution is the transformed solution.
+ */
+public final class GridTransformer {
+
+  private GridTransformer() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  /**
+   * Transforms the given Sudoku board by a random transformation drawn from the given stream.
+   *
+   * @param sudokuBoard the Sudoku board to transform
+   * @param random the random stream to draw the transformation from
+   * @return the transformed Sudoku board with the same difficulty level
+   */
+  public static SudokuBoard transform(
+      final SudokuBoard sudokuBoard, final SplittableRandom random) {
+    final int width = sudokuBoard.unsolvedGrid().length;
+    final int blockWidth = (int) Math.round(Math.sqrt(width));
+
+    final int[] rows = createLinePermutation(width, blockWidth, random);
+    final int[] columns = createLinePermutation(width, blockWidth, random);
+    final byte[] digits = createDigitPermutation(width, random);
+    final boolean transpose = random.nextBoolean();
+
+    return new SudokuBoard(
+        transform(sudokuBoard.unsolvedGrid(), rows, columns, digits, transpose),
+        transform(sudokuBoard.solvedGrid(), rows, columns, digits, transpose),
+        sudokuBoard.difficultyLevel());
+  }
+
+  private static byte[][] transform(
+      final byte[][] grid,
+      final int[] rows,
+      final int[] columns,
+      final byte[] digits,
+      final boolean transpose) {
+    final byte[][] transformed = new byte[grid.length][grid.length];
+    for (int row = 0; row < grid.length; row++) {
+      for (int column = 0; column < grid.length; column++) {
+        transformed[row][column] =
+            digits[transpose ? grid[columns[column]][rows[row]] : grid[rows[row]][columns[column]]];
+      }
+    }
+    return transformed;
+  }
+
+  private static int[] createLinePermutation(
+      final int width, final int blockWidth, final SplittableRandom random) {
+    final int[] bands = shuffle(blockWidth, random);
+    final int[] lines = new int[width];
+    for (int band = 0; band < blockWidth; band++) {
+      int[] offsets = shuffle(blockWidth, random);
+      for (int offset = 0; offset < blockWidth; offset++) {
+        lines[band * blockWidth + offset] = bands[band] * blockWidth + offsets[offset];
+      }
+    }
+    return lines;
+  }
+
+  private static byte[] createDigitPermutation(final int width, final SplittableRandom random) {
+    final int[] shuffled = shuffle(width, random);
+    final byte[] digits = new byte[width + 1];
+    for (int digit = 1; digit <= width; digit++) {
+      digits[digit] = (byte) (shuffled[digit - 1] + 1);
+    }
+    return digits;
+  }
+
+  private static int[] shuffle(final int size, final SplittableRandom random) {
+    final int[] values = new int[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = i;
+    }
+    for (int i = size - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int swap = values[i];
+      values[i] = values[j];
+      values[j] = swap;
+    }
+    return values;
+  }
+}
@@ -0,0 +1,159 @@
+package ch.zhaw.pm2.amongdigits.utils;
+
+import ch.zhaw.pm2.amongdigits.utils.matrix.CachedMatrixManager;
+import ch.zhaw.pm2.amongdigits.utils.matrix.Matrix;
+import ch.zhaw.pm2.amongdigits.utils.schema.Schema;
+import java.util.SplittableRandom;
+
+/**
+ * This class searches for a puzzle with as few numbers as possible that still has the given full
+ * matrix as its only solution. Numbers are cleared guided by their candidate count: the number
+ * whose cell would have the fewest candidates left is tried first, as it is the most likely to
+ * follow from the rest of the puzzle. Once no number can be cleared anymore, the search swaps one
+ * cleared number back in for others. After too many swaps without progress, it restarts from the
+ * full matrix with a new random order among equally constrained cells. The search stops when the
+ * target is reached or the deadline has passed, and the puzzle with the fewest numbers is kept.
+ * The deadline is checked before every number that is tried, so the search ends at most one
+ * uniqueness check after it.
+ */
+final class LowClueSearch {
+
+  /** The number of swaps without progress after which the search restarts from the full matrix. */
+  static final int PLATEAU_SWAPS = 20;
+
+  private final Matrix solution;
+  private final SplittableRandom random;
+  private final Schema schema;
+  private final int width;
+
+  /**
+   * Constructs a new LowClueSearch for puzzles with the given solution.
+   *
+   * @param solution the full matrix to clear numbers from
+   * @param random the random stream used to break ties and to pick numbers to swap
+   */
+  LowClueSearch(final Matrix solution, final SplittableRandom random) {
+    this.solution = solution;
+    this.random = random;
+    schema = solution.getSchema();
+    width = schema.getWidth();
+  }
+
+  /**
+   * Searches for a puzzle with the given number of cleared cells until the deadline has passed. If
+   * the deadline passes during the first descent from the full matrix, the puzzle cleared so far is
+   * returned, which still has the full matrix as its only solution.
+   *
+   * @param numbersToClear the number of cells to clear
+   * @param deadline the {@link System#nanoTime()} after which no further number is tried
+   * @return the puzzle with the most cleared cells found
+   */
+  CachedMatrixManager search(final int numbersToClear, final long deadline) {
+    CachedMatrixManager best = null;
+    int bestCleared = -1;
+
+    do {
+      UniquenessChecker checker = new UniquenessChecker(solution);
+      int cleared = dig(checker, -1, numbersToClear, deadline);
+      int failedSwaps = 0;
+
+      while (true) {
+        if (cleared > bestCleared) {
+          best = new CachedMatrixManager(schema);
+          best.copyFrom(checker.getPuzzle());
+          bestCleared = cleared;
+          failedSwaps = 0;
+        }
+        if (bestCleared >= numbersToClear
+            || failedSwaps >= PLATEAU_SWAPS
+            || System.nanoTime() - deadline >= 0) {
+          break;
+        }
+
+        cleared += swap(checker, numbersToClear - cleared, deadline);
+        failedSwaps++;
+      }
+    } while (bestCleared < numbersToClear && System.nanoTime() - deadline < 0);
+
+    return best;
+  }
+
+  private int swap(
+      final UniquenessChecker checker, final int numbersToClear, final long deadline) {
+    final int restoredCell = findClearedCell(checker);
+    final int row = restoredCell / width;
+    final int column = restoredCell % width;
+    checker.restore(row, column, solution.get(row, column));
+
+    final int cleared = dig(checker, restoredCell, numbersToClear + 1, deadline);
+    if (cleared == 0) {
+      checker.clear(row, column);
+    }
+
+    return Math.max(cleared, 1) - 1;
+  }
+
+  private int dig(
+      final UniquenessChecker checker,
+      final int excludedCell,
+      final int numbersToClear,
+      final long deadline) {
+    final boolean[] unclearable = new boolean[schema.getTotalFields()];
+    if (excludedCell >= 0) {
+      unclearable[excludedCell] = true;
+    }
+
+    int cleared = 0;
+    while (cleared < numbersToClear && System.nanoTime() - deadline < 0) {
+      int cell = findMostConstrainedCell(checker, unclearable);
+      if (cell < 0) {
+        break;
+      }
+
+      if (checker.isClearable(cell / width, cell % width)) {
+        checker.clear(cell / width, cell % width);
+        cleared++;
+      } else {
+        unclearable[cell] = true;
+      }
+    }
+
+    return cleared;
+  }
+
+  private int findMostConstrainedCell(
+      final UniquenessChecker checker, final boolean[] unclearable) {
+    final CachedMatrixManager puzzle = checker.getPuzzle();
+    final int totalFields = schema.getTotalFields();
+    final int offset = random.nextInt(totalFields);
+    int minimumCell = -1;
+    int minimumBits = Integer.MAX_VALUE;
+
+    for (int i = 0; i < totalFields; i++) {
+      int cell = (offset + i) % totalFields;
+      if (!unclearable[cell] && checker.isSet(cell / width, cell % width)) {
+        int bits = Integer.bitCount(puzzle.getFreeMask(cell / width, cell % width));
+        if (bits < minimumBits) {
+          minimumCell = cell;
+          minimumBits = bits;
+        }
+      }
+    }
+
+    return minimumCell;
+  }
+
+  private int findClearedCell(final UniquenessChecker checker) {
+    final int totalFields = schema.getTotalFields();
+    final int offset = random.nextInt(totalFields);
+
+    for (int i = 0; i < totalFields; i++) {
+      int cell = (offset + i) % totalFields;
+      if (!checker.isSet(cell / width, cell % width)) {
+        return cell;
+      }
+    }
+
+    throw new IllegalStateException("No cleared cell to swap");
+  }
+}
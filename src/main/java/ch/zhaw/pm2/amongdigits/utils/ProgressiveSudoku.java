@@ -0,0 +1,11 @@
+package ch.zhaw.pm2.amongdigits.utils;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A record that represents a Sudoku puzzle created in two steps. The playable result is available
+ * at once, while the refined result, which has the same solution but more cleared numbers, is
+ * completed in the background.
+ */
+public record ProgressiveSudoku(
+    GenerationResult result, CompletableFuture<GenerationResult> refinedResult) {}
@@ -0,0 +1,110 @@
+package ch.zhaw.pm2.amongdigits.utils;
+
+import ch.zhaw.pm2.amongdigits.utils.matrix.CachedMatrixManager;
+import ch.zhaw.pm2.amongdigits.utils.schema.Schema;
+
+/**
+ * This class finds cells of a puzzle whose value follows from the numbers already set, without any
+ * search. A naked single is an empty cell with only one candidate left, a hidden single is the only
+ * empty cell of a row, column or block that can still hold a value.
+ */
+final class SingleFinder {
+
+  private final Schema schema;
+  private final int[][] units;
+
+  /**
+   * Constructs a new SingleFinder for puzzles of the given schema.
+   *
+   * @param schema the schema of the puzzles to search
+   */
+  SingleFinder(final Schema schema) {
+    this.schema = schema;
+    units = createUnits(schema);
+  }
+
+  /**
+   * Finds a naked single in the given puzzle.
+   *
+   * @param puzzle the puzzle to search
+   * @param cellValueResult an array to store the cell index and the value of the single
+   * @return true if a naked single was found, false otherwise
+   */
+  boolean findNakedSingle(final CachedMatrixManager puzzle, final int[] cellValueResult) {
+    final int width = schema.getWidth();
+    final byte unset = schema.getUnsetValue();
+
+    for (int cell = 0; cell < schema.getTotalFields(); cell++) {
+      int row = cell / width;
+      int column = cell % width;
+      if (puzzle.get(row, column) == unset) {
+        int free = puzzle.getFreeMask(row, column);
+        if (Integer.bitCount(free) == 1) {
+          cellValueResult[0] = cell;
+          cellValueResult[1] = Integer.numberOfTrailingZeros(free);
+          return true;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Finds a hidden single in the given puzzle.
+   *
+   * @param puzzle the puzzle to search
+   * @param cellValueResult an array to store the cell index and the value of the single
+   * @return true if a hidden single was found, false otherwise
+   */
+  boolean findHiddenSingle(final CachedMatrixManager puzzle, final int[] cellValueResult) {
+    final int width = schema.getWidth();
+    final byte unset = schema.getUnsetValue();
+
+    for (int[] unit : units) {
+      int seenOnce = 0;
+      int seenTwice = 0;
+      for (int cell : unit) {
+        if (puzzle.get(cell) == unset) {
+          int free = puzzle.getFreeMask(cell / width, cell % width);
+          seenTwice |= seenOnce & free;
+          seenOnce |= free;
+        }
+      }
+
+      int hidden = seenOnce & ~seenTwice;
+      if (hidden != 0) {
+        int value = Integer.numberOfTrailingZeros(hidden);
+        for (int cell : unit) {
+          if (puzzle.get(cell) == unset
+              && (puzzle.getFreeMask(cell / width, cell % width) & (1 << value)) != 0) {
+            cellValueResult[0] = cell;
+            cellValueResult[1] = value;
+            return true;
+          }
+        }
+      }
+    }
+
+    return false;
+  }
+
+  private static int[][] createUnits(final Schema schema) {
+    final int width = schema.getWidth();
+    final int blockWidth = schema.getBlockWidth();
+    int[][] units = new int[3 * width][width];
+
+    for (int i = 0; i < width; i++) {
+      int blockRow = (i / blockWidth) * blockWidth;
+      int blockColumn = (i % blockWidth) * blockWidth;
+      for (int j = 0; j < width; j++) {
+        units[i][j] = i * width + j;
+        units[width + i][j] = j * width + i;
+        units[2 * width + i][j] =
+            (blockRow + j / blockWidth) * width + blockColumn + j % blockWidth;
+      }
+    }
+
+    return units;
+  }
+}
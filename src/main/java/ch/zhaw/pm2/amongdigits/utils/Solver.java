@@ -18,12 +18,22 @@ public final class Solver {
 
   private final CachedMatrixManager cachedMatrixManager;
   private final List<Matrix> possibleSolutions;
+  private final boolean collectSolutions;
+  private int solutionCount;
 
   private Solver(final Matrix matrix) {
     Objects.requireNonNull(matrix, "Matrix must not be null");
     cachedMatrixManager = new CachedMatrixManager(matrix.getSchema());
-    cachedMatrixManager.setAll(matrix.getAll());
+    cachedMatrixManager.copyFrom(matrix);
     possibleSolutions = new ArrayList<>();
+    collectSolutions = true;
+  }
+
+  private Solver(final CachedMatrixManager cachedMatrixManager) {
+    this.cachedMatrixManager =
+        Objects.requireNonNull(cachedMatrixManager, "Matrix must not be null");
+    possibleSolutions = Collections.emptyList();
+    collectSolutions = false;
   }
 
   /**
@@ -46,7 +56,6 @@ public final class Solver {
    */
   public static List<Matrix> solve(final Matrix matrix, final int maxSolutions) {
     Solver solver = new Solver(matrix);
-    solver.possibleSolutions.clear();
     int freeCells =
         solver.cachedMatrixManager.getSchema().getTotalFields()
             - solver.cachedMatrixManager.getSetCount();
@@ -56,17 +65,39 @@ public final class Solver {
     return Collections.unmodifiableList(solver.possibleSolutions);
   }
 
+  /**
+   * Counts the solutions of the given matrix up to the specified maximum number. The search runs
+   * in place on the given matrix, which is left unchanged once the method returns, so callers can
+   * keep their cached state between consecutive checks instead of copying the matrix every time.
+   *
+   * @param cachedMatrixManager The matrix to search, restored to its original state on return.
+   * @param maxSolutions The maximum number of solutions to count.
+   * @return The number of solutions found, at most {@code maxSolutions}.
+   */
+  static int countSolutions(final CachedMatrixManager cachedMatrixManager, final int maxSolutions) {
+    Solver solver = new Solver(cachedMatrixManager);
+    int freeCells =
+        cachedMatrixManager.getSchema().getTotalFields() - cachedMatrixManager.getSetCount();
+
+    backtrack(freeCells, new int[2], maxSolutions, solver);
+
+    return solver.solutionCount;
+  }
+
   private static int backtrack(
       final int freeCells, final int[] minimumCell, final int maxSolutions, final Solver solver) {
     assert freeCells >= 0;
-    if (solver.possibleSolutions.size() >= maxSolutions) {
+    if (solver.solutionCount >= maxSolutions) {
       return 0;
     }
 
     if (freeCells == 0) {
-      Matrix matrix = new MatrixManager(solver.cachedMatrixManager.getSchema());
-      matrix.setAll(solver.cachedMatrixManager.getAll());
-      solver.possibleSolutions.add(matrix);
+      if (solver.collectSolutions) {
+        MatrixManager matrix = new MatrixManager(solver.cachedMatrixManager.getSchema());
+        matrix.copyFrom(solver.cachedMatrixManager);
+        solver.possibleSolutions.add(matrix);
+      }
+      solver.solutionCount++;
 
       return 1;
     }
@@ -0,0 +1,42 @@
+package ch.zhaw.pm2.amongdigits.utils;
+
+/**
+ * Enumeration representing the symmetries a Sudoku puzzle's clue pattern can follow. Cells that are
+ * mapped onto each other by a symmetry form an orbit and are always cleared together.
+ */
+public enum Symmetry {
+
+  /** No symmetry, every cell forms its own orbit. */
+  NONE,
+
+  /** Point symmetry, a cell is paired with the cell rotated by 180 degrees around the center. */
+  ROTATIONAL,
+
+  /** Mirror symmetry, a cell is paired with the cell mirrored on the vertical center line. */
+  MIRROR,
+
+  /** Diagonal symmetry, a cell is paired with the cell mirrored on the main diagonal. */
+  DIAGONAL;
+
+  /**
+   * Returns the orbit of the given cell, i.e. the indices ({@code row * width + column}) of all
+   * cells that are mapped onto each other by this symmetry, starting with the given cell.
+   *
+   * @param row the row of the cell
+   * @param column the column of the cell
+   * @param width the width of the grid
+   * @return the cell indices of the orbit, containing one or two cells
+   */
+  public int[] getOrbit(final int row, final int column, final int width) {
+    final int cell = row * width + column;
+    final int mirrored =
+        switch (this) {
+          case NONE -> cell;
+          case ROTATIONAL -> (width - 1 - row) * width + (width - 1 - column);
+          case MIRROR -> row * width + (width - 1 - column);
+          case DIAGONAL -> column * width + row;
+        };
+
+    return mirrored == cell ? new int[] {cell} : new int[] {cell, mirrored};
+  }
+}
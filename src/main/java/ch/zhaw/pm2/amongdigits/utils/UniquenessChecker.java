@@ -0,0 +1,227 @@
+package ch.zhaw.pm2.amongdigits.utils;
+
+import ch.zhaw.pm2.amongdigits.utils.matrix.CachedMatrixManager;
+import ch.zhaw.pm2.amongdigits.utils.matrix.Matrix;
+import ch.zhaw.pm2.amongdigits.utils.schema.Schema;
+
+/**
+ * This class keeps track of a puzzle while numbers are cleared from it and checks whether a number
+ * can be cleared without losing the uniqueness of the solution. The puzzle is held in a single
+ * cached matrix that is updated cell by cell and searched in place, so consecutive checks reuse the
+ * row, column and block caches instead of rebuilding them for every candidate cell.
+ *
+ * <p>Before a cell is handed to the solver, a cheap logical check runs on the cleared puzzle: if
+ * naked and hidden singles alone fill the cleared cells again, their numbers follow from the rest
+ * of the puzzle and the solution stays unique. Only cells the singles cannot fill are searched, and
+ * the search asks for a solution with a different number in a cleared cell instead of counting the
+ * solutions of the looser puzzle.
+ */
+final class UniquenessChecker {
+
+  private final CachedMatrixManager puzzle;
+  private final SingleFinder singleFinder;
+  private final int[] trail;
+  private final int[] single = new int[2];
+  private final byte unset;
+  private final int width;
+
+  /**
+   * Constructs a new UniquenessChecker starting from the given matrix.
+   *
+   * @param matrix the matrix to start clearing numbers from
+   */
+  UniquenessChecker(final Matrix matrix) {
+    final Schema schema = matrix.getSchema();
+    puzzle = new CachedMatrixManager(schema);
+    puzzle.copyFrom(matrix);
+    singleFinder = new SingleFinder(schema);
+    trail = new int[schema.getTotalFields()];
+    unset = schema.getUnsetValue();
+    width = schema.getWidth();
+  }
+
+  /**
+   * Returns the puzzle in its current state.
+   *
+   * @return the puzzle in its current state
+   */
+  CachedMatrixManager getPuzzle() {
+    return puzzle;
+  }
+
+  /**
+   * Checks whether the cell at the given position still holds a number.
+   *
+   * @param row the row of the cell
+   * @param column the column of the cell
+   * @return true if the cell is set, false otherwise
+   */
+  boolean isSet(final int row, final int column) {
+    return puzzle.get(row, column) != unset;
+  }
+
+  /**
+   * Checks whether the number at the given position can be cleared while the puzzle keeps exactly
+   * one solution. The puzzle is unchanged when the method returns.
+   *
+   * @param row the row of the cell
+   * @param column the column of the cell
+   * @return true if the number can be cleared, false otherwise
+   */
+  boolean isClearable(final int row, final int column) {
+    final byte value = puzzle.get(row, column);
+    assert value != unset;
+
+    if (Integer.bitCount(puzzle.getFreeMask(row, column)) == 0) {
+      return true;
+    }
+
+    final int[] cells = {row * width + column};
+    puzzle.set(row, column, unset);
+    boolean result = isFilledBySingles(cells) || !hasOtherSolution(cells, new byte[] {value});
+    puzzle.set(row, column, value);
+
+    return result;
+  }
+
+  /**
+   * Checks whether all cells with the given indices ({@code row * width + column}) still hold a
+   * number.
+   *
+   * @param cells the indices of the cells
+   * @return true if all cells are set, false otherwise
+   */
+  boolean isSet(final int[] cells) {
+    for (int cell : cells) {
+      if (!isSet(cell / width, cell % width)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether the numbers of all cells with the given indices can be cleared together while
+   * the puzzle keeps exactly one solution. A single search answers the question for all cells. The
+   * puzzle is unchanged when the method returns.
+   *
+   * @param cells the indices of the cells, all of which must be set
+   * @return true if the numbers can be cleared, false otherwise
+   */
+  boolean isClearable(final int[] cells) {
+    if (cells.length == 1) {
+      return isClearable(cells[0] / width, cells[0] % width);
+    }
+
+    byte[] values = new byte[cells.length];
+    for (int i = 0; i < cells.length; i++) {
+      values[i] = puzzle.get(cells[i] / width, cells[i] % width);
+      assert values[i] != unset;
+      puzzle.set(cells[i] / width, cells[i] % width, unset);
+    }
+
+    boolean result = isFilledBySingles(cells) || !hasOtherSolution(cells, values);
+
+    for (int i = 0; i < cells.length; i++) {
+      puzzle.set(cells[i] / width, cells[i] % width, values[i]);
+    }
+
+    return result;
+  }
+
+  /**
+   * Checks whether naked and hidden singles alone fill all cells with the given indices. Since the
+   * puzzle has a solution, every single is part of it, so filled cells can only take their cleared
+   * numbers back. The puzzle is unchanged when the method returns.
+   *
+   * @param cells the indices of the cleared cells
+   * @return true if the singles fill all cells, false if they get stuck before
+   */
+  private boolean isFilledBySingles(final int[] cells) {
+    int trailSize = 0;
+    int remaining = cells.length;
+
+    while (remaining > 0
+        && (singleFinder.findNakedSingle(puzzle, single)
+            || singleFinder.findHiddenSingle(puzzle, single))) {
+      puzzle.set(single[0] / width, single[0] % width, (byte) single[1]);
+      trail[trailSize++] = single[0];
+      for (int cell : cells) {
+        if (cell == single[0]) {
+          remaining--;
+        }
+      }
+    }
+
+    while (trailSize > 0) {
+      int cell = trail[--trailSize];
+      puzzle.set(cell / width, cell % width, unset);
+    }
+
+    return remaining == 0;
+  }
+
+  /**
+   * Checks whether the puzzle has a solution in which at least one of the cleared cells holds a
+   * number other than its cleared one. Any second solution differs from the first in a cleared
+   * cell, so each other candidate of each cell is tried in turn and a search only has to find any
+   * solution of the then fully constrained puzzle, stopping at the first one. The puzzle is
+   * unchanged when the method returns.
+   *
+   * @param cells the indices of the cleared cells
+   * @param values the cleared numbers, in the order of the cells
+   * @return true if another solution exists, false if the cleared numbers are the only choice
+   */
+  private boolean hasOtherSolution(final int[] cells, final byte[] values) {
+    for (int i = 0; i < cells.length; i++) {
+      final int row = cells[i] / width;
+      final int column = cells[i] % width;
+      int candidates = puzzle.getFreeMask(row, column) & ~(1 << values[i]);
+
+      while (candidates != 0) {
+        puzzle.set(row, column, (byte) Integer.numberOfTrailingZeros(candidates));
+        boolean found = Solver.countSolutions(puzzle, 1) > 0;
+        puzzle.set(row, column, unset);
+        if (found) {
+          return true;
+        }
+        candidates &= candidates - 1;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Clears the numbers of all cells with the given indices.
+   *
+   * @param cells the indices of the cells
+   */
+  void clear(final int[] cells) {
+    for (int cell : cells) {
+      clear(cell / width, cell % width);
+    }
+  }
+
+  /**
+   * Clears the number at the given position.
+   *
+   * @param row the row of the cell
+   * @param column the column of the cell
+   */
+  void clear(final int row, final int column) {
+    puzzle.set(row, column, unset);
+  }
+
+  /**
+   * Restores a previously cleared number at the given position.
+   *
+   * @param row the row of the cell
+   * @param column the column of the cell
+   * @param value the number to restore
+   */
+  void restore(final int row, final int column, final byte value) {
+    assert !isSet(row, column);
+    puzzle.set(row, column, value);
+  }
+}
@@ -1,6 +1,7 @@
 package ch.zhaw.pm2.amongdigits.utils.matrix;
 
 import ch.zhaw.pm2.amongdigits.utils.schema.Schema;
+import java.util.Arrays;
 
 /**
  * The CachedMatrixManager class extends the MatrixManager class and implements an optimized version
@@ -49,7 +50,7 @@ public class CachedMatrixManager extends MatrixManager {
    */
   static CachedMatrixManager clone(final CachedMatrixManager cachedMatrixManager) {
     CachedMatrixManager clone = new CachedMatrixManager(cachedMatrixManager.getSchema());
-    clone.setAll(cachedMatrixManager.getAll());
+    clone.copyFrom(cachedMatrixManager.snapshot());
 
     return clone;
   }
@@ -167,6 +168,45 @@ public class CachedMatrixManager extends MatrixManager {
     super.set(row, column, value);
   }
 
+  /**
+   * Recomputes the free masks and the number of set cells from the values in a single pass after
+   * they have been replaced in bulk.
+   *
+   * @throws IllegalArgumentException if a value appears twice in a row, column or block
+   */
+  @Override
+  void refreshCache() {
+    final Schema schema = getSchema();
+    final int width = schema.getWidth();
+    final int blockWidth = schema.getBlockWidth();
+    final byte unset = schema.getUnsetValue();
+
+    Arrays.fill(rowFree, schema.getBitMask());
+    Arrays.fill(columnFree, schema.getBitMask());
+    for (int[] blockRow : blockFree) {
+      Arrays.fill(blockRow, schema.getBitMask());
+    }
+    setCount = 0;
+
+    for (int cell = 0; cell < schema.getTotalFields(); cell++) {
+      byte value = get(cell);
+      if (value == unset) {
+        continue;
+      }
+      int row = cell / width;
+      int column = cell % width;
+      int bitMask = 1 << value;
+      if ((getFreeMask(row, column) & bitMask) == 0) {
+        throw new IllegalArgumentException(
+            "Value " + value + " is not allowed at position (" + row + ", " + column + ")");
+      }
+      rowFree[row] &= ~bitMask;
+      columnFree[column] &= ~bitMask;
+      blockFree[row / blockWidth][column / blockWidth] &= ~bitMask;
+      setCount++;
+    }
+  }
+
   /**
    * Returns the number of fields that have been set in the Sudoku puzzle.
    *
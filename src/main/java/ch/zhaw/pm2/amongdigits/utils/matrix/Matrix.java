@@ -21,6 +21,13 @@ public interface Matrix {
    * @return the value at the specified position
    */
   byte get(int row, int column);
+  /**
+   * Returns the value of the cell with the specified index, counting row by row.
+   *
+   * @param cell the cell index, {@code row * width + column}
+   * @return the value of the cell
+   */
+  byte get(int cell);
   /**
    * Returns a two-dimensional array containing all values in the matrix.
    *
@@ -68,4 +75,14 @@ public interface Matrix {
    * @throws IllegalStateException if the matrix is no longer valid after the value is set
    */
   void set(int row, int column, byte value) throws IllegalArgumentException, IllegalStateException;
+  /**
+   * Sets the value of the cell with the specified index, counting row by row.
+   *
+   * @param cell the cell index, {@code row * width + column}
+   * @param value the value to be set
+   * @throws IllegalArgumentException if the value is not valid for the matrix's schema or if the
+   *     value is not allowed at the specified position
+   * @throws IllegalStateException if the matrix is no longer valid after the value is set
+   */
+  void set(int cell, byte value) throws IllegalArgumentException, IllegalStateException;
 }
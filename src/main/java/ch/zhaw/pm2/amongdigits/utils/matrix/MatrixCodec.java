@@ -0,0 +1,213 @@
+package ch.zhaw.pm2.amongdigits.utils.matrix;
+
+import static ch.zhaw.pm2.amongdigits.utils.SudokuConstants.SUDOKU_GRID_SIZE;
+
+import ch.zhaw.pm2.amongdigits.DifficultyLevel;
+import ch.zhaw.pm2.amongdigits.SudokuBoard;
+import java.util.zip.CRC32;
+
+/**
+ * Utility class that packs 9x9 grids and Sudoku boards into compact fixed-size byte records for
+ * storage and transport.
+ *
+ * <p>A grid is packed row by row into 4-bit nibbles, the first cell of each byte in the upper
+ * nibble, which takes {@value #GRID_BYTES} bytes. A board record holds the ordinal of its
+ * difficulty level in one byte, the packed solution and a bitmask of the given cells in {@value
+ * #GIVENS_BYTES} bytes, {@value #BOARD_BYTES} bytes in total. Optionally, a CRC32 of the record is
+ * appended in {@value #CHECKSUM_BYTES} more bytes.
+ */
+public final class MatrixCodec {
+
+  /** The number of bytes of a packed grid. */
+  public static final int GRID_BYTES = (SUDOKU_GRID_SIZE * SUDOKU_GRID_SIZE + 1) / 2;
+
+  /** The number of bytes of the bitmask of the given cells of a board. */
+  public static final int GIVENS_BYTES = (SUDOKU_GRID_SIZE * SUDOKU_GRID_SIZE + 7) / 8;
+
+  /** The number of bytes of a board record without checksum. */
+  public static final int BOARD_BYTES = 1 + GRID_BYTES + GIVENS_BYTES;
+
+  /** The number of bytes of the checksum appended to a board record. */
+  public static final int CHECKSUM_BYTES = 4;
+
+  private static final int CELLS = SUDOKU_GRID_SIZE * SUDOKU_GRID_SIZE;
+  private static final int NIBBLE_MASK = 0x0F;
+
+  private MatrixCodec() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  /**
+   * Returns the number of bytes of a board record.
+   *
+   * @param withChecksum whether the record ends with a checksum
+   * @return the number of bytes of a board record
+   */
+  public static int getBoardRecordBytes(final boolean withChecksum) {
+    return withChecksum ? BOARD_BYTES + CHECKSUM_BYTES : BOARD_BYTES;
+  }
+
+  /**
+   * Packs the given matrix.
+   *
+   * @param matrix the 9x9 matrix to pack
+   * @return the packed grid
+   * @throws IllegalArgumentException if the matrix is not 9x9
+   */
+  public static byte[] encode(final Matrix matrix) {
+    if (matrix.getSchema().getTotalFields() != CELLS) {
+      throw new IllegalArgumentException("Only 9x9 matrices can be encoded");
+    }
+    final byte[] values = new byte[CELLS];
+    for (int cell = 0; cell < CELLS; cell++) {
+      values[cell] = matrix.get(cell);
+    }
+    final byte[] target = new byte[GRID_BYTES];
+    encodeGrid(values, target, 0);
+    return target;
+  }
+
+  /**
+   * Unpacks a grid packed by {@link #encode(Matrix)} into the given matrix.
+   *
+   * @param source the packed grid
+   * @param matrixManager the 9x9 matrix to unpack the grid into
+   * @throws IllegalArgumentException if the packed grid has the wrong length or an invalid value
+   */
+  public static void decode(final byte[] source, final MatrixManager matrixManager) {
+    if (source.length != GRID_BYTES) {
+      throw new IllegalArgumentException("Packed grid must have " + GRID_BYTES + " bytes");
+    }
+    final byte[] values = new byte[CELLS];
+    decodeGrid(source, 0, values);
+    matrixManager.copyFrom(values);
+  }
+
+  /**
+   * Packs the given board into a record at the given offset of the target array.
+   *
+   * @param sudokuBoard the 9x9 board to pack, whose givens agree with its solution
+   * @param target the array to write the record into
+   * @param offset the offset of the record in the target array
+   * @param withChecksum whether to append a checksum to the record
+   */
+  public static void encodeBoard(
+      final SudokuBoard sudokuBoard,
+      final byte[] target,
+      final int offset,
+      final boolean withChecksum) {
+    final byte[] solution = new byte[CELLS];
+    final byte[][] unsolvedGrid = sudokuBoard.unsolvedGrid();
+    final byte[][] solvedGrid = sudokuBoard.solvedGrid();
+
+    target[offset] = (byte) sudokuBoard.difficultyLevel().ordinal();
+    final int givensOffset = offset + 1 + GRID_BYTES;
+    for (int i = 0; i < GIVENS_BYTES; i++) {
+      target[givensOffset + i] = 0;
+    }
+    for (int cell = 0; cell < CELLS; cell++) {
+      int row = cell / SUDOKU_GRID_SIZE;
+      int column = cell % SUDOKU_GRID_SIZE;
+      solution[cell] = solvedGrid[row][column];
+      if (unsolvedGrid[row][column] != 0) {
+        target[givensOffset + cell / 8] |= (byte) (1 << (cell % 8));
+      }
+    }
+    encodeGrid(solution, target, offset + 1);
+
+    if (withChecksum) {
+      writeInt(target, offset + BOARD_BYTES, checksum(target, offset));
+    }
+  }
+
+  /**
+   * Packs the given board into a new record.
+   *
+   * @param sudokuBoard the 9x9 board to pack, whose givens agree with its solution
+   * @param withChecksum whether to append a checksum to the record
+   * @return the record
+   */
+  public static byte[] encodeBoard(final SudokuBoard sudokuBoard, final boolean withChecksum) {
+    final byte[] target = new byte[getBoardRecordBytes(withChecksum)];
+    encodeBoard(sudokuBoard, target, 0, withChecksum);
+    return target;
+  }
+
+  /**
+   * Unpacks the board record at the given offset of the source array.
+   *
+   * @param source the array to read the record from
+   * @param offset the offset of the record in the source array
+   * @param withChecksum whether the record ends with a checksum
+   * @return the unpacked board
+   * @throws IllegalArgumentException if the checksum does not match or the record is invalid
+   */
+  public static SudokuBoard decodeBoard(
+      final byte[] source, final int offset, final boolean withChecksum) {
+    if (withChecksum && readInt(source, offset + BOARD_BYTES) != checksum(source, offset)) {
+      throw new IllegalArgumentException("Checksum of board record does not match");
+    }
+    final DifficultyLevel[] difficultyLevels = DifficultyLevel.values();
+    final int ordinal = source[offset];
+    if (ordinal < 0 || ordinal >= difficultyLevels.length) {
+      throw new IllegalArgumentException("Invalid difficulty level: " + ordinal);
+    }
+
+    final byte[] solution = new byte[CELLS];
+    decodeGrid(source, offset + 1, solution);
+    final int givensOffset = offset + 1 + GRID_BYTES;
+    final byte[][] unsolvedGrid = new byte[SUDOKU_GRID_SIZE][SUDOKU_GRID_SIZE];
+    final byte[][] solvedGrid = new byte[SUDOKU_GRID_SIZE][SUDOKU_GRID_SIZE];
+    for (int cell = 0; cell < CELLS; cell++) {
+      int row = cell / SUDOKU_GRID_SIZE;
+      int column = cell % SUDOKU_GRID_SIZE;
+      if (solution[cell] == 0) {
+        throw new IllegalArgumentException("Solution of board record is not full");
+      }
+      solvedGrid[row][column] = solution[cell];
+      if ((source[givensOffset + cell / 8] & (1 << (cell % 8))) != 0) {
+        unsolvedGrid[row][column] = solution[cell];
+      }
+    }
+    return new SudokuBoard(unsolvedGrid, solvedGrid, difficultyLevels[ordinal]);
+  }
+
+  private static void encodeGrid(final byte[] values, final byte[] target, final int offset) {
+    for (int i = 0; i < GRID_BYTES; i++) {
+      int high = values[2 * i];
+      int low = 2 * i + 1 < CELLS ? values[2 * i + 1] : 0;
+      target[offset + i] = (byte) (high << 4 | low);
+    }
+  }
+
+  private static void decodeGrid(final byte[] source, final int offset, final byte[] values) {
+    for (int cell = 0; cell < CELLS; cell++) {
+      int packed = source[offset + cell / 2];
+      int value = (cell % 2 == 0 ? packed >> 4 : packed) & NIBBLE_MASK;
+      if (value > SUDOKU_GRID_SIZE) {
+        throw new IllegalArgumentException("Invalid packed value: " + value);
+      }
+      values[cell] = (byte) value;
+    }
+  }
+
+  private static int checksum(final byte[] record, final int offset) {
+    final CRC32 crc32 = new CRC32();
+    crc32.update(record, offset, BOARD_BYTES);
+    return (int) crc32.getValue();
+  }
+
+  private static void writeInt(final byte[] target, final int offset, final int value) {
+    for (int i = 0; i < CHECKSUM_BYTES; i++) {
+      target[offset + i] = (byte) (value >>> (8 * (CHECKSUM_BYTES - 1 - i)));
+    }
+  }
+
+  private static int readInt(final byte[] source, final int offset) {
+    int value = 0;
+    for (int i = 0; i < CHECKSUM_BYTES; i++) {
+      value = value << 8 | (source[offset + i] & 0xFF);
+    }
+    return value;
+  }
+}
@@ -10,11 +10,21 @@ import java.util.Arrays;
 /**
  * MatrixManager represents an implementation of the Matrix interface. It stores a matrix of bytes
  * and a schema defining the valid values and dimensions of the matrix.
+ *
+ * <p>The values are stored row by row in a single flat array, so a cell can also be addressed by
+ * its index {@code row * width + column} and whole matrices are copied with one {@link
+ * System#arraycopy(Object, int, Object, int, int)}.
+ *
+ * <p>A {@link MatrixSnapshot} of the values shares the array with the matrix. Copying the values
+ * is deferred until either side is about to change them: the matrix copies its array on its first
+ * change after a snapshot was taken or adopted, and a snapshot is never changed.
  */
 public class MatrixManager implements Matrix {
 
   private final Schema schema;
-  private final byte[][] matrix;
+  private final int width;
+  private byte[] matrix;
+  private boolean isShared;
 
   /**
    * Constructs a new MatrixManager instance with the specified schema.
@@ -23,7 +33,8 @@ public class MatrixManager implements Matrix {
    */
   public MatrixManager(final Schema schema) {
     this.schema = schema;
-    matrix = new byte[schema.getWidth()][schema.getWidth()];
+    width = schema.getWidth();
+    matrix = new byte[schema.getTotalFields()];
   }
 
   /**
@@ -35,7 +46,7 @@ public class MatrixManager implements Matrix {
    */
   static MatrixManager clone(final MatrixManager matrixManager) {
     MatrixManager clone = new MatrixManager(matrixManager.getSchema());
-    clone.setAll(matrixManager.getAll());
+    clone.copyFrom(matrixManager.snapshot());
 
     return clone;
   }
@@ -90,12 +101,9 @@ public class MatrixManager implements Matrix {
   /** {@inheritDoc} */
   @Override
   public void clear() {
-    byte unsetValue = schema.getUnsetValue();
-    for (int i = 0; i < schema.getWidth(); i++) {
-      for (int j = 0; j < schema.getWidth(); j++) {
-        set(j, i, unsetValue);
-      }
-    }
+    ensureExclusive();
+    Arrays.fill(matrix, schema.getUnsetValue());
+    refreshCache();
   }
 
   /** {@inheritDoc} */
@@ -104,35 +112,121 @@ public class MatrixManager implements Matrix {
     if (!getSchema().areCoordsValid(row, column)) {
       throw new IllegalArgumentException("Coordinates are not valid");
     }
-    return matrix[row][column];
+    return matrix[row * width + column];
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public byte get(final int cell) {
+    if (cell < 0 || cell >= matrix.length) {
+      throw new IllegalArgumentException("Cell index is not valid");
+    }
+    return matrix[cell];
   }
 
   /** {@inheritDoc} */
   @Override
   public byte[][] getAll() {
-    return matrix.clone();
+    final byte[][] values = new byte[width][width];
+    for (int row = 0; row < width; row++) {
+      System.arraycopy(matrix, row * width, values[row], 0, width);
+    }
+    return values;
   }
 
   /** {@inheritDoc} */
   @Override
   public void setAll(final byte[][] values) {
-    for (int i = 0; i < schema.getWidth(); i++) {
-      for (int j = 0; j < schema.getWidth(); j++) {
-        set(j, i, values[j][i]);
+    if (values.length != width) {
+      throw new IllegalArgumentException("Array height does not match schema width");
+    }
+    for (final byte[] row : values) {
+      if (row.length != width) {
+        throw new IllegalArgumentException("Array width does not match schema width");
       }
+      checkValues(row);
+    }
+    ensureExclusive();
+    for (int row = 0; row < width; row++) {
+      System.arraycopy(values[row], 0, matrix, row * width, width);
+    }
+    refreshCache();
+  }
+
+  /**
+   * Returns an immutable snapshot of the current values. The snapshot shares the values with this
+   * matrix until this matrix is changed.
+   *
+   * @return the snapshot of the values
+   */
+  public MatrixSnapshot snapshot() {
+    isShared = true;
+    return new MatrixSnapshot(schema, matrix);
+  }
+
+  /**
+   * Copies all values of the given matrix into this matrix. The values of a {@link MatrixSnapshot}
+   * are shared and only copied once this matrix is changed.
+   *
+   * @param source the matrix to copy the values from
+   * @throws IllegalArgumentException if the width of the source does not match
+   */
+  public void copyFrom(final Matrix source) {
+    if (source.getSchema().getWidth() != width) {
+      throw new IllegalArgumentException("Width of the source does not match schema width");
+    }
+    if (source instanceof MatrixSnapshot matrixSnapshot) {
+      matrix = matrixSnapshot.getValues();
+      isShared = true;
+      refreshCache();
+    } else if (source instanceof MatrixManager matrixManager) {
+      ensureExclusive();
+      System.arraycopy(matrixManager.matrix, 0, matrix, 0, matrix.length);
+      refreshCache();
+    } else {
+      setAll(source.getAll());
+    }
+  }
+
+  /**
+   * Copies all values of the given flat array, row by row, into this matrix.
+   *
+   * @param values the values to copy, one per cell
+   * @throws IllegalArgumentException if the length of the array does not match the number of
+   *     cells, or if a value is not valid
+   */
+  public void copyFrom(final byte[] values) {
+    if (values.length != matrix.length) {
+      throw new IllegalArgumentException("Array length does not match number of cells");
     }
+    checkValues(values);
+    ensureExclusive();
+    System.arraycopy(values, 0, matrix, 0, matrix.length);
+    refreshCache();
+  }
+
+  /**
+   * Copies all values of this matrix, row by row, into the given flat array.
+   *
+   * @param target the array to copy the values into, one per cell
+   * @throws IllegalArgumentException if the length of the array does not match the number of
+   *     cells
+   */
+  public void copyInto(final byte[] target) {
+    if (target.length != matrix.length) {
+      throw new IllegalArgumentException("Array length does not match number of cells");
+    }
+    System.arraycopy(matrix, 0, target, 0, matrix.length);
   }
 
   /** {@inheritDoc} */
   @Override
   public int getSetCount() {
     int count = 0;
-    for (int i = 0; i < schema.getWidth(); i++) {
-      for (int j = 0; j < schema.getWidth(); j++) {
-        assert getSchema().isValueValid(matrix[i][j]);
-        if (matrix[i][j] != schema.getUnsetValue()) {
-          count++;
-        }
+    for (final byte value : matrix) {
+      assert getSchema().isValueValid(value);
+      if (value != schema.getUnsetValue()) {
+        count++;
       }
     }
 
@@ -192,13 +286,23 @@ public class MatrixManager implements Matrix {
     if (!getSchema().isValueValid(value)) {
       throw new IllegalArgumentException("Invalid value");
     }
-    matrix[row][column] = value;
+    ensureExclusive();
+    matrix[row * width + column] = value;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void set(final int cell, final byte value) {
+    if (cell < 0 || cell >= matrix.length) {
+      throw new IllegalArgumentException("Invalid cell index");
+    }
+    set(cell / width, cell % width, value);
   }
 
   /** {@inheritDoc} */
   @Override
   public int hashCode() {
-    return Arrays.deepHashCode(matrix);
+    return Arrays.hashCode(matrix);
   }
 
   /** {@inheritDoc} */
@@ -214,7 +318,17 @@ public class MatrixManager implements Matrix {
       return false;
     }
 
-    return Arrays.deepEquals(matrix, other.matrix);
+    return Arrays.equals(matrix, other.matrix);
+  }
+
+  /**
+   * Updates the state derived from the values after they have been replaced in bulk. The plain
+   * matrix keeps no such state.
+   *
+   * @throws IllegalArgumentException if the new values break a rule the derived state relies on
+   */
+  void refreshCache() {
+    // Nothing is derived from the values.
   }
 
   /**
@@ -295,7 +409,7 @@ public class MatrixManager implements Matrix {
     if (target.length != schema.getWidth()) {
       throw new IllegalArgumentException("Array length does not match schema width");
     }
-    System.arraycopy(matrix[index], 0, target, 0, schema.getWidth());
+    System.arraycopy(matrix, index * width, target, 0, width);
   }
 
   /**
@@ -310,8 +424,8 @@ public class MatrixManager implements Matrix {
     if (target.length != schema.getWidth()) {
       throw new IllegalArgumentException("Target array length does not match schema width");
     }
-    for (int row = 0; row < schema.getWidth(); row++) {
-      target[row] = matrix[row][index];
+    for (int row = 0; row < width; row++) {
+      target[row] = matrix[row * width + index];
     }
   }
 
@@ -337,7 +451,7 @@ public class MatrixManager implements Matrix {
     int roundColumn = roundToBlock(column);
     for (int i = 0; i < schema.getBlockWidth(); i++) {
       for (int j = 0; j < schema.getBlockWidth(); j++) {
-        target[targetIndex++] = matrix[roundRow + i][roundColumn + j];
+        target[targetIndex++] = matrix[(roundRow + i) * width + roundColumn + j];
       }
     }
   }
@@ -386,6 +500,21 @@ public class MatrixManager implements Matrix {
     return minimumBits != -1 ? FOUND : NONE_FREE;
   }
 
+  private void ensureExclusive() {
+    if (isShared) {
+      matrix = matrix.clone();
+      isShared = false;
+    }
+  }
+
+  private void checkValues(final byte[] values) {
+    for (final byte value : values) {
+      if (!schema.isValueValid(value)) {
+        throw new IllegalArgumentException("Invalid value");
+      }
+    }
+  }
+
   private int[] findMinimumFreeCellInRow(final int row, final byte unset) {
     final int width = getSchema().getWidth();
     int minimumBits = -1;
@@ -0,0 +1,133 @@
+package ch.zhaw.pm2.amongdigits.utils.matrix;
+
+import ch.zhaw.pm2.amongdigits.utils.schema.Schema;
+import java.util.Arrays;
+
+/**
+ * An immutable snapshot of the values of a {@link MatrixManager}, taken with {@link
+ * MatrixManager#snapshot()}. A snapshot can be shared freely between threads and caches. Copying
+ * it into a matrix with {@link MatrixManager#copyFrom(Matrix)} shares its values, which the matrix
+ * only copies once it is changed. All write operations throw an {@link
+ * UnsupportedOperationException}.
+ */
+public final class MatrixSnapshot implements Matrix {
+
+  private final Schema schema;
+  private final byte[] values;
+
+  /**
+   * Constructs a new MatrixSnapshot of the given values, which must never be changed afterwards.
+   *
+   * @param schema the schema of the values
+   * @param values the values, row by row
+   */
+  MatrixSnapshot(final Schema schema, final byte[] values) {
+    this.schema = schema;
+    this.values = values;
+  }
+
+  /**
+   * Returns the shared values, which must not be changed.
+   *
+   * @return the values, row by row
+   */
+  byte[] getValues() {
+    return values;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Schema getSchema() {
+    return schema;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException("Snapshots are immutable");
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public byte get(final int row, final int column) {
+    if (!schema.areCoordsValid(row, column)) {
+      throw new IllegalArgumentException("Coordinates are not valid");
+    }
+    return values[row * schema.getWidth() + column];
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public byte get(final int cell) {
+    if (cell < 0 || cell >= values.length) {
+      throw new IllegalArgumentException("Cell index is not valid");
+    }
+    return values[cell];
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public byte[][] getAll() {
+    return toMatrixManager().getAll();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void setAll(final byte[][] values) {
+    throw new UnsupportedOperationException("Snapshots are immutable");
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public int getSetCount() {
+    return toMatrixManager().getSetCount();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean isValid() {
+    return toMatrixManager().isValid();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean isSetPossible(final int row, final int column, final byte value) {
+    return toMatrixManager().isSetPossible(row, column, value);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void set(final int row, final int column, final byte value) {
+    throw new UnsupportedOperationException("Snapshots are immutable");
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void set(final int cell, final byte value) {
+    throw new UnsupportedOperationException("Snapshots are immutable");
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(values);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof MatrixSnapshot other)) {
+      return false;
+    }
+    return Arrays.equals(values, other.values);
+  }
+
+  private MatrixManager toMatrixManager() {
+    final MatrixManager matrixManager = new MatrixManager(schema);
+    matrixManager.copyFrom(this);
+    return matrixManager;
+  }
+}
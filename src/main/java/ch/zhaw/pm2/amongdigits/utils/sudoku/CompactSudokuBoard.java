@@ -0,0 +1,256 @@
+package ch.zhaw.pm2.amongdigits.utils.sudoku;
+
+import static ch.zhaw.pm2.amongdigits.utils.SudokuConstants.SUDOKU_GRID_SIZE;
+
+import ch.zhaw.pm2.amongdigits.DifficultyLevel;
+import ch.zhaw.pm2.amongdigits.SudokuBoard;
+import ch.zhaw.pm2.amongdigits.utils.matrix.Matrix;
+import ch.zhaw.pm2.amongdigits.utils.matrix.MatrixManager;
+import ch.zhaw.pm2.amongdigits.utils.schema.Schema;
+import ch.zhaw.pm2.amongdigits.utils.schema.SchemaTypes;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A memory-saving form of a 9x9 {@link SudokuBoard} for holding many boards at once. The solution
+ * is stored row by row in one flat array and the given cells of the puzzle in a 128-bit mask made
+ * of two longs, so a board takes two objects instead of the twenty arrays of a {@link SudokuBoard}.
+ *
+ * <p>The board is immutable. Its puzzle and its solution can be read through {@link Sudoku} and
+ * {@link Matrix} views without copying, and all write operations of these views throw an {@link
+ * UnsupportedOperationException}.
+ */
+public final class CompactSudokuBoard {
+
+  private static final Schema SCHEMA = SchemaTypes.SCHEMA_9X9;
+  private static final int CELLS = SUDOKU_GRID_SIZE * SUDOKU_GRID_SIZE;
+
+  private final byte[] solution;
+  private final long givensLow;
+  private final long givensHigh;
+  private final DifficultyLevel difficultyLevel;
+
+  private CompactSudokuBoard(
+      final byte[] solution,
+      final long givensLow,
+      final long givensHigh,
+      final DifficultyLevel difficultyLevel) {
+    this.solution = solution;
+    this.givensLow = givensLow;
+    this.givensHigh = givensHigh;
+    this.difficultyLevel = difficultyLevel;
+  }
+
+  /**
+   * Creates the compact form of the given board.
+   *
+   * @param sudokuBoard the 9x9 board to compact
+   * @return the compact board
+   * @throws IllegalArgumentException if the board is not 9x9 or a given differs from the solution
+   */
+  public static CompactSudokuBoard of(final SudokuBoard sudokuBoard) {
+    final byte[][] unsolvedGrid = sudokuBoard.unsolvedGrid();
+    final byte[][] solvedGrid = sudokuBoard.solvedGrid();
+    if (unsolvedGrid.length != SUDOKU_GRID_SIZE || solvedGrid.length != SUDOKU_GRID_SIZE) {
+      throw new IllegalArgumentException("Only 9x9 boards can be compacted");
+    }
+
+    final byte[] solution = new byte[CELLS];
+    long givensLow = 0;
+    long givensHigh = 0;
+    for (int cell = 0; cell < CELLS; cell++) {
+      int row = cell / SUDOKU_GRID_SIZE;
+      int column = cell % SUDOKU_GRID_SIZE;
+      solution[cell] = solvedGrid[row][column];
+      byte given = unsolvedGrid[row][column];
+      if (given != SCHEMA.getUnsetValue()) {
+        if (given != solution[cell]) {
+          throw new IllegalArgumentException("Given at cell " + cell + " differs from solution");
+        }
+        if (cell < Long.SIZE) {
+          givensLow |= 1L << cell;
+        } else {
+          givensHigh |= 1L << (cell - Long.SIZE);
+        }
+      }
+    }
+    return new CompactSudokuBoard(
+        solution, givensLow, givensHigh, sudokuBoard.difficultyLevel());
+  }
+
+  /**
+   * Returns the board in its regular form.
+   *
+   * @return a new board with the same puzzle, solution and difficulty level
+   */
+  public SudokuBoard toSudokuBoard() {
+    final byte[][] unsolvedGrid = new byte[SUDOKU_GRID_SIZE][SUDOKU_GRID_SIZE];
+    final byte[][] solvedGrid = new byte[SUDOKU_GRID_SIZE][SUDOKU_GRID_SIZE];
+    for (int row = 0; row < SUDOKU_GRID_SIZE; row++) {
+      System.arraycopy(solution, row * SUDOKU_GRID_SIZE, solvedGrid[row], 0, SUDOKU_GRID_SIZE);
+      for (int column = 0; column < SUDOKU_GRID_SIZE; column++) {
+        unsolvedGrid[row][column] = getGiven(row * SUDOKU_GRID_SIZE + column);
+      }
+    }
+    return new SudokuBoard(unsolvedGrid, solvedGrid, difficultyLevel);
+  }
+
+  /**
+   * Returns the difficulty level of the board.
+   *
+   * @return the difficulty level
+   */
+  public DifficultyLevel getDifficultyLevel() {
+    return difficultyLevel;
+  }
+
+  /**
+   * Returns whether the cell with the given index is given in the puzzle.
+   *
+   * @param cell the cell index, {@code row * 9 + column}
+   * @return true if the cell is given, false otherwise
+   */
+  public boolean isGiven(final int cell) {
+    return cell < Long.SIZE
+        ? (givensLow & (1L << cell)) != 0
+        : (givensHigh & (1L << (cell - Long.SIZE))) != 0;
+  }
+
+  /**
+   * Returns the number of cells given in the puzzle.
+   *
+   * @return the number of givens
+   */
+  public int getGivenCount() {
+    return Long.bitCount(givensLow) + Long.bitCount(givensHigh);
+  }
+
+  /**
+   * Returns a read-only view of the puzzle, in which the cells that are not given are unset.
+   *
+   * @return the puzzle view
+   */
+  public Sudoku puzzleView() {
+    return new View(true);
+  }
+
+  /**
+   * Returns a read-only view of the solution.
+   *
+   * @return the solution view
+   */
+  public Matrix solutionView() {
+    return new View(false);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof CompactSudokuBoard other)) {
+      return false;
+    }
+    return givensLow == other.givensLow
+        && givensHigh == other.givensHigh
+        && difficultyLevel == other.difficultyLevel
+        && Arrays.equals(solution, other.solution);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public int hashCode() {
+    return Objects.hash(Arrays.hashCode(solution), givensLow, givensHigh);
+  }
+
+  private byte getGiven(final int cell) {
+    return isGiven(cell) ? solution[cell] : SCHEMA.getUnsetValue();
+  }
+
+  /**
+   * A read-only view of the puzzle or the solution. Cells are read straight from the board, the
+   * rarely used checks run on a temporary copy.
+   */
+  private final class View implements Sudoku {
+
+    private final boolean isPuzzle;
+
+    private View(final boolean isPuzzle) {
+      this.isPuzzle = isPuzzle;
+    }
+
+    @Override
+    public Schema getSchema() {
+      return SCHEMA;
+    }
+
+    @Override
+    public void clear() {
+      throw new UnsupportedOperationException("Compact boards are read-only");
+    }
+
+    @Override
+    public byte get(final int row, final int column) {
+      if (!SCHEMA.areCoordsValid(row, column)) {
+        throw new IllegalArgumentException("Coordinates are not valid");
+      }
+      return get(row * SUDOKU_GRID_SIZE + column);
+    }
+
+    @Override
+    public byte get(final int cell) {
+      if (cell < 0 || cell >= CELLS) {
+        throw new IllegalArgumentException("Cell index is not valid");
+      }
+      return isPuzzle ? getGiven(cell) : solution[cell];
+    }
+
+    @Override
+    public byte[][] getAll() {
+      final SudokuBoard sudokuBoard = toSudokuBoard();
+      return isPuzzle ? sudokuBoard.unsolvedGrid() : sudokuBoard.solvedGrid();
+    }
+
+    @Override
+    public void setAll(final byte[][] values) {
+      throw new UnsupportedOperationException("Compact boards are read-only");
+    }
+
+    @Override
+    public int getSetCount() {
+      return isPuzzle ? getGivenCount() : CELLS;
+    }
+
+    @Override
+    public boolean isValid() {
+      return toMatrixManager().isValid();
+    }
+
+    @Override
+    public boolean isSetPossible(final int row, final int column, final byte value) {
+      return toMatrixManager().isSetPossible(row, column, value);
+    }
+
+    @Override
+    public void set(final int row, final int column, final byte value) {
+      throw new UnsupportedOperationException("Compact boards are read-only");
+    }
+
+    @Override
+    public void set(final int cell, final byte value) {
+      throw new UnsupportedOperationException("Compact boards are read-only");
+    }
+
+    @Override
+    public void setWritable(final int row, final int column, final boolean writable) {
+      throw new UnsupportedOperationException("Compact boards are read-only");
+    }
+
+    private MatrixManager toMatrixManager() {
+      final MatrixManager matrixManager = new MatrixManager(SCHEMA);
+      matrixManager.copyFrom(this);
+      return matrixManager;
+    }
+  }
+}
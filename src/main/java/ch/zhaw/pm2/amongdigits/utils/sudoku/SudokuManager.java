@@ -9,7 +9,7 @@ import ch.zhaw.pm2.amongdigits.utils.schema.Schema;
  */
 public class SudokuManager extends MatrixManager implements Sudoku {
 
-  private boolean[][] writeable;
+  private final boolean[][] writeable;
 
   /**
    * Constructs a new SudokuManager object with the specified schema.
@@ -35,8 +35,10 @@ public class SudokuManager extends MatrixManager implements Sudoku {
    */
   static SudokuManager clone(final SudokuManager sudokuManager) {
     SudokuManager clone = new SudokuManager(sudokuManager.getSchema());
-    clone.setAll(sudokuManager.getAll());
-    clone.writeable = sudokuManager.writeable.clone();
+    clone.copyFrom(sudokuManager.snapshot());
+    for (int row = 0; row < sudokuManager.writeable.length; row++) {
+      clone.writeable[row] = sudokuManager.writeable[row].clone();
+    }
 
     return clone;
   }
@@ -0,0 +1,107 @@
+package ch.zhaw.pm2.amongdigits.catalog;
+
+import static ch.zhaw.pm2.amongdigits.utils.SudokuConstants.FILE_AREA_NAME_SEPARATOR;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.zhaw.pm2.amongdigits.ChallengeType;
+import ch.zhaw.pm2.amongdigits.DifficultyLevel;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** This class contains test cases for the CatalogBuilder class. */
+class CatalogBuilderTest {
+
+  private static final int COUNT_PER_LEVEL = 2;
+
+  @TempDir private Path tempDirectory;
+  private Path directory;
+
+  @BeforeEach
+  void setUp() {
+    directory = tempDirectory.resolve("catalog");
+  }
+
+  /**
+   * Tests that building a catalog writes the requested number of distinct puzzles for every
+   * difficulty level and lists them next to the directory.
+   */
+  @Test
+  void testBuild() throws IOException, InterruptedException {
+    int written = new CatalogBuilder(directory, COUNT_PER_LEVEL, 2, 42L).build();
+
+    List<Path> files = listFiles(directory);
+    assertEquals(COUNT_PER_LEVEL * DifficultyLevel.values().length, written);
+    assertEquals(written, files.size());
+
+    Set<String> contents = new HashSet<>();
+    for (Path file : files) {
+      contents.add(Files.readString(file, UTF_8));
+    }
+    assertEquals(files.size(), contents.size());
+
+    for (DifficultyLevel difficultyLevel : DifficultyLevel.values()) {
+      String prefix = difficultyLevel.name() + FILE_AREA_NAME_SEPARATOR;
+      assertEquals(
+          COUNT_PER_LEVEL,
+          files.stream().filter(file -> file.getFileName().toString().startsWith(prefix)).count());
+    }
+
+    List<String> fileList =
+        Files.readAllLines(
+            tempDirectory.resolve("catalog" + ChallengeType.FILE_LIST_ENDING), UTF_8);
+    assertEquals(
+        files.stream().map(file -> file.getFileName().toString()).sorted().toList(), fileList);
+  }
+
+  /** Tests that building a catalog twice with the same seed skips the puzzles already present. */
+  @Test
+  void testBuildSkipsExistingPuzzles() throws IOException, InterruptedException {
+    new CatalogBuilder(directory, COUNT_PER_LEVEL, 2, 42L).build();
+    new CatalogBuilder(directory, COUNT_PER_LEVEL, 2, 42L).build();
+
+    List<Path> files = listFiles(directory);
+    Set<String> contents = new HashSet<>();
+    for (Path file : files) {
+      assertTrue(contents.add(Files.readString(file, UTF_8)));
+    }
+  }
+
+  /** Tests that a catalog built with the workers of a coordinator has all its puzzles. */
+  @Test
+  void testBuildWithCoordinator() throws IOException, InterruptedException {
+    try (GenerationCoordinator coordinator = new GenerationCoordinator(0)) {
+      Thread worker =
+          new Thread(
+              () -> {
+                try {
+                  new GenerationWorker("localhost", coordinator.getPort(), 2).run();
+                } catch (IOException e) {
+                  throw new IllegalStateException(e);
+                }
+              });
+      worker.setDaemon(true);
+      worker.start();
+
+      int written = new CatalogBuilder(directory, COUNT_PER_LEVEL, 4, 42L, coordinator).build();
+
+      assertEquals(COUNT_PER_LEVEL * DifficultyLevel.values().length, written);
+      assertEquals(written, listFiles(directory).size());
+    }
+  }
+
+  private static List<Path> listFiles(final Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.toList();
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package ch.zhaw.pm2.amongdigits.catalog;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.zhaw.pm2.amongdigits.DifficultyLevel;
+import ch.zhaw.pm2.amongdigits.SudokuBoard;
+import ch.zhaw.pm2.amongdigits.utils.Creator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class contains test cases for the GenerationCoordinator and GenerationWorker classes, with
+ * the coordinator and its workers connected over localhost.
+ */
+class GenerationCoordinatorTest {
+
+  private static final String LOCALHOST = "localhost";
+  private static final long TIMEOUT_SECONDS = 30;
+  private static final long JOB_TIMEOUT_MILLIS = 200;
+
+  /**
+   * Tests that jobs spread over several workers return the same puzzles as a local generator and
+   * the right solution counts.
+   */
+  @Test
+  void testGenerateAndValidate()
+      throws IOException, InterruptedException, ExecutionException, TimeoutException {
+    try (GenerationCoordinator coordinator = new GenerationCoordinator(0)) {
+      startWorker(coordinator, 1);
+      startWorker(coordinator, 2);
+
+      List<CompletableFuture<SudokuBoard>> boards = new ArrayList<>();
+      for (long seed = 0; seed < 8; seed++) {
+        boards.add(coordinator.submitGeneration(DifficultyLevel.MEDIUM, seed));
+      }
+      for (int seed = 0; seed < boards.size(); seed++) {
+        SudokuBoard expected = Creator.generate(DifficultyLevel.MEDIUM, seed).toSudokuBoard();
+        assertEquals(expected, boards.get(seed).get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+      }
+
+      SudokuBoard sudokuBoard = boards.get(0).join();
+      int uniqueCount =
+          coordinator
+              .submitValidation(sudokuBoard.unsolvedGrid())
+              .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      int emptyCount =
+          coordinator.submitValidation(new byte[9][9]).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      assertEquals(1, uniqueCount);
+      assertEquals(2, emptyCount);
+    }
+  }
+
+  /** Tests that the jobs of a worker that disconnects are finished by another worker. */
+  @Test
+  void testWorkerFailure()
+      throws IOException, InterruptedException, ExecutionException, TimeoutException {
+    try (GenerationCoordinator coordinator = new GenerationCoordinator(0)) {
+      List<CompletableFuture<SudokuBoard>> boards = new ArrayList<>();
+      for (long seed = 0; seed < 4; seed++) {
+        boards.add(coordinator.submitGeneration(DifficultyLevel.EASY, seed));
+      }
+
+      takeJobsAndDisconnect(coordinator, 4);
+      startWorker(coordinator, 1);
+
+      for (CompletableFuture<SudokuBoard> board : boards) {
+        assertNotNull(board.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+      }
+    }
+  }
+
+  /** Tests that the jobs of a worker that stays connected but never answers are requeued. */
+  @Test
+  void testStalledWorker()
+      throws IOException, InterruptedException, ExecutionException, TimeoutException {
+    try (GenerationCoordinator coordinator =
+            new GenerationCoordinator(0, 8, Duration.ofMillis(JOB_TIMEOUT_MILLIS));
+        Socket socket = new Socket(LOCALHOST, coordinator.getPort());
+        BufferedReader reader =
+            new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8))) {
+      CompletableFuture<SudokuBoard> board =
+          coordinator.submitGeneration(DifficultyLevel.EASY, 1L);
+      sendHello(socket, 1);
+      assertNotNull(reader.readLine());
+
+      startWorker(coordinator, 1);
+      assertNotNull(board.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+  }
+
+  /** Tests that submitting to a full queue waits until a worker takes a job. */
+  @Test
+  void testSubmitWaitsWhileQueueIsFull()
+      throws IOException, InterruptedException, ExecutionException, TimeoutException {
+    try (GenerationCoordinator coordinator =
+        new GenerationCoordinator(0, 1, GenerationCoordinator.DEFAULT_JOB_TIMEOUT)) {
+      CompletableFuture<SudokuBoard> first = coordinator.submitGeneration(DifficultyLevel.EASY, 1L);
+      CompletableFuture<CompletableFuture<SudokuBoard>> second = new CompletableFuture<>();
+      Thread producer =
+          new Thread(
+              () -> {
+                try {
+                  second.complete(coordinator.submitGeneration(DifficultyLevel.EASY, 2L));
+                } catch (InterruptedException e) {
+                  second.completeExceptionally(e);
+                }
+              });
+      producer.setDaemon(true);
+      producer.start();
+      assertThrows(
+          TimeoutException.class, () -> second.get(JOB_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+
+      startWorker(coordinator, 1);
+      assertNotNull(first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+      assertNotNull(
+          second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+  }
+
+  /** Tests that a job fails once it has been lost with too many workers. */
+  @Test
+  void testJobFailsAfterMaxAttempts() throws IOException, InterruptedException {
+    try (GenerationCoordinator coordinator = new GenerationCoordinator(0)) {
+      CompletableFuture<SudokuBoard> board =
+          coordinator.submitGeneration(DifficultyLevel.HARD, 1L);
+
+      for (int attempt = 0; attempt < GenerationCoordinator.MAX_ATTEMPTS; attempt++) {
+        takeJobsAndDisconnect(coordinator, 1);
+      }
+
+      ExecutionException exception =
+          assertThrows(
+              ExecutionException.class, () -> board.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+      assertTrue(exception.getCause() instanceof IOException);
+    }
+  }
+
+  /** Tests that error messages are encoded on one line and never as null. */
+  @Test
+  void testEncodeMessage() {
+    assertEquals(
+        "first line second line",
+        WorkerProtocol.encodeMessage(new IllegalStateException("first line\r\nsecond line")));
+    assertEquals("NullPointerException", WorkerProtocol.encodeMessage(new NullPointerException()));
+  }
+
+  private static void startWorker(final GenerationCoordinator coordinator, final int threads) {
+    Thread thread =
+        new Thread(
+            () -> {
+              try {
+                new GenerationWorker(LOCALHOST, coordinator.getPort(), threads).run();
+              } catch (IOException e) {
+                throw new IllegalStateException(e);
+              }
+            });
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private static void takeJobsAndDisconnect(
+      final GenerationCoordinator coordinator, final int credits) throws IOException {
+    try (Socket socket = new Socket(LOCALHOST, coordinator.getPort());
+        BufferedReader reader =
+            new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8))) {
+      sendHello(socket, credits);
+      for (int i = 0; i < credits; i++) {
+        assertNotNull(reader.readLine());
+      }
+    }
+  }
+
+  private static void sendHello(final Socket socket, final int credits) throws IOException {
+    OutputStream outputStream = socket.getOutputStream();
+    outputStream.write((WorkerProtocol.HELLO + " " + credits + "\n").getBytes(UTF_8));
+    outputStream.flush();
+  }
+}
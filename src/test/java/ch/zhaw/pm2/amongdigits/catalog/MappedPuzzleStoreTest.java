@@ -0,0 +1,72 @@
+package ch.zhaw.pm2.amongdigits.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import ch.zhaw.pm2.amongdigits.DifficultyLevel;
+import ch.zhaw.pm2.amongdigits.SudokuBoard;
+import ch.zhaw.pm2.amongdigits.utils.Creator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** This class contains test cases for the MappedPuzzleStore class. */
+class MappedPuzzleStoreTest {
+
+  private static final int GROWING_BOARD_COUNT = 2500;
+
+  @TempDir Path tempDir;
+
+  /** Tests that appended boards are read back by index and in order. */
+  @Test
+  void testAppendAndGet() throws IOException {
+    SudokuBoard first = Creator.generate(DifficultyLevel.EASY, 1L).toSudokuBoard();
+    SudokuBoard second = Creator.generate(DifficultyLevel.EXPERT, 2L).toSudokuBoard();
+
+    try (MappedPuzzleStore store = new MappedPuzzleStore(tempDir.resolve("catalog.store"))) {
+      assertEquals(0, store.append(first));
+      assertEquals(1, store.append(second));
+
+      assertEquals(2, store.size());
+      assertEquals(first, store.get(0));
+      assertEquals(second, store.get(1));
+      List<SudokuBoard> scanned = new ArrayList<>();
+      store.forEach(scanned::add);
+      assertEquals(List.of(first, second), scanned);
+      assertThrows(IndexOutOfBoundsException.class, () -> store.get(2));
+    }
+  }
+
+  /** Tests that the store grows beyond its initial capacity and survives a reopen. */
+  @Test
+  void testGrowAndReopen() throws IOException {
+    Path file = tempDir.resolve("catalog.store");
+    SudokuBoard sudokuBoard = Creator.generate(DifficultyLevel.MEDIUM, 3L).toSudokuBoard();
+    SudokuBoard last = Creator.generate(DifficultyLevel.HARD, 4L).toSudokuBoard();
+    try (MappedPuzzleStore store = new MappedPuzzleStore(file)) {
+      for (int i = 0; i < GROWING_BOARD_COUNT; i++) {
+        store.append(sudokuBoard);
+      }
+      store.append(last);
+    }
+
+    try (MappedPuzzleStore store = new MappedPuzzleStore(file)) {
+      assertEquals(GROWING_BOARD_COUNT + 1, store.size());
+      assertEquals(sudokuBoard, store.get(GROWING_BOARD_COUNT / 2));
+      assertEquals(last, store.get(GROWING_BOARD_COUNT));
+    }
+  }
+
+  /** Tests that opening a file that is not a store fails. */
+  @Test
+  void testOpenCorruptFile() throws IOException {
+    Path file = tempDir.resolve("corrupt.store");
+    Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+
+    assertThrows(IOException.class, () -> new MappedPuzzleStore(file));
+  }
+}
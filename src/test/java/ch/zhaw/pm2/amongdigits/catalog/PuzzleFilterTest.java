@@ -0,0 +1,81 @@
+package ch.zhaw.pm2.amongdigits.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** This class contains test cases for the PuzzleFilter class. */
+class PuzzleFilterTest {
+
+  private static final int CAPACITY = 10_000;
+  private static final double FALSE_POSITIVE_RATE = 0.01;
+
+  @TempDir Path tempDir;
+
+  /**
+   * Tests that all added hashes are contained, and that other hashes are rejected at about the
+   * false positive rate the filter was sized for.
+   */
+  @Test
+  void testAddAndMightContain() throws IOException {
+    SplittableRandom random = new SplittableRandom(3L);
+    long[] added = random.longs(CAPACITY).toArray();
+    try (PuzzleFilter puzzleFilter =
+        new PuzzleFilter(tempDir.resolve("test.filter"), CAPACITY, FALSE_POSITIVE_RATE)) {
+      for (long hash : added) {
+        puzzleFilter.add(hash);
+      }
+
+      for (long hash : added) {
+        assertTrue(puzzleFilter.mightContain(hash));
+      }
+      long falsePositives = random.longs(CAPACITY).filter(puzzleFilter::mightContain).count();
+      assertTrue(falsePositives < 2 * FALSE_POSITIVE_RATE * CAPACITY);
+      assertFalse(puzzleFilter.add(added[0]));
+    }
+  }
+
+  /** Tests that the filter keeps its size and its hashes when it is opened again. */
+  @Test
+  void testReopen() throws IOException {
+    Path file = tempDir.resolve("test.filter");
+    long bitCount;
+    try (PuzzleFilter puzzleFilter = new PuzzleFilter(file, CAPACITY, FALSE_POSITIVE_RATE)) {
+      assertTrue(puzzleFilter.add(42L));
+      bitCount = puzzleFilter.getBitCount();
+    }
+
+    try (PuzzleFilter puzzleFilter = new PuzzleFilter(file, 1, FALSE_POSITIVE_RATE)) {
+      assertEquals(bitCount, puzzleFilter.getBitCount());
+      assertEquals(1, puzzleFilter.getCount());
+      assertTrue(puzzleFilter.mightContain(42L));
+    }
+  }
+
+  /** Tests that a filter of the default size fits ten million puzzles at one percent. */
+  @Test
+  void testDefaultSize() throws IOException {
+    try (PuzzleFilter puzzleFilter = new PuzzleFilter(tempDir.resolve("default.filter"))) {
+      assertEquals(7, puzzleFilter.getHashCount());
+      assertTrue(puzzleFilter.getBitCount() >= 95_850_000L);
+      assertTrue(puzzleFilter.getBitCount() < 96_000_000L);
+    }
+  }
+
+  /** Tests that opening a file that is not a filter fails. */
+  @Test
+  void testOpenCorruptFile() throws IOException {
+    Path file = tempDir.resolve("corrupt.filter");
+    Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+
+    assertThrows(IOException.class, () -> new PuzzleFilter(file));
+  }
+}
@@ -6,12 +6,18 @@ import static java.util.Objects.requireNonNull;
 import static org.junit.jupiter.api.Assertions.*;
 
 import ch.zhaw.pm2.amongdigits.DifficultyLevel;
+import ch.zhaw.pm2.amongdigits.SudokuBoard;
 import ch.zhaw.pm2.amongdigits.exception.InvalidFileFormatException;
 import ch.zhaw.pm2.amongdigits.exception.InvalidSudokuException;
+import ch.zhaw.pm2.amongdigits.exception.SudokuUnavailableException;
+import ch.zhaw.pm2.amongdigits.pool.PuzzlePool;
 import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ResourceBundle;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /** Test class for the SudokuGameModel. */
 class SudokuGameModelTest {
@@ -60,7 +66,7 @@ class SudokuGameModelTest {
    * Tests if the createSudoku Method using Random generation adds a new SudokuBoard to the model.
    */
   @Test
-  void createRandomSudoku() {
+  void createRandomSudoku() throws SudokuUnavailableException {
     sudokuGameModel.createSudoku(DifficultyLevel.EASY);
     assertNotNull(sudokuGameModel.getSudokuBoard());
     assertFalse(
@@ -69,6 +75,60 @@ class SudokuGameModelTest {
             sudokuGameModel.getSudokuBoard().unsolvedGrid()));
   }
 
+  /**
+   * Tests if the createSudoku Method using Random generation falls back to a pre-generated puzzle
+   * of the requested level without waiting when the generation does not finish.
+   */
+  @Test
+  void createRandomSudokuWithStalledGeneration(@TempDir Path poolDirectory) {
+    SudokuGameModel stalledModel =
+        new SudokuGameModel(
+            ResourceBundle.getBundle(BASE_NAME), new PuzzlePool(poolDirectory), runnable -> {});
+
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(5), () -> stalledModel.createSudoku(DifficultyLevel.HARD));
+
+    assertPreGeneratedBoard(stalledModel.getSudokuBoard(), DifficultyLevel.HARD);
+  }
+
+  /**
+   * Tests if the createSudoku Method using Random generation falls back to a pre-generated puzzle
+   * without waiting when the thread is interrupted.
+   */
+  @Test
+  void createRandomSudokuWhenInterrupted(@TempDir Path poolDirectory) {
+    SudokuGameModel stalledModel =
+        new SudokuGameModel(
+            ResourceBundle.getBundle(BASE_NAME), new PuzzlePool(poolDirectory), runnable -> {});
+
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(5),
+        () -> {
+          Thread.currentThread().interrupt();
+          try {
+            stalledModel.createSudoku(DifficultyLevel.MEDIUM);
+            assertTrue(Thread.currentThread().isInterrupted());
+          } finally {
+            Thread.interrupted();
+          }
+        });
+
+    assertPreGeneratedBoard(stalledModel.getSudokuBoard(), DifficultyLevel.MEDIUM);
+  }
+
+  private static void assertPreGeneratedBoard(
+      SudokuBoard sudokuBoard, DifficultyLevel difficultyLevel) {
+    assertNotNull(sudokuBoard);
+    assertEquals(difficultyLevel, sudokuBoard.difficultyLevel());
+    for (int row = 0; row < SUDOKU_GRID_SIZE; row++) {
+      for (int column = 0; column < SUDOKU_GRID_SIZE; column++) {
+        byte given = sudokuBoard.unsolvedGrid()[row][column];
+        assertNotEquals(0, sudokuBoard.solvedGrid()[row][column]);
+        assertTrue(given == 0 || given == sudokuBoard.solvedGrid()[row][column]);
+      }
+    }
+  }
+
   /** Tests if the createSudoku Method using File generation adds a new SudokuBoard to the model. */
   @Test
   void createFileSudoku() throws InvalidFileFormatException, InvalidSudokuException {
@@ -0,0 +1,125 @@
+package ch.zhaw.pm2.amongdigits.pool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.zhaw.pm2.amongdigits.DifficultyLevel;
+import ch.zhaw.pm2.amongdigits.SudokuBoard;
+import ch.zhaw.pm2.amongdigits.utils.Creator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** This class contains test cases for the PuzzlePool and PoolRefiller classes. */
+class PuzzlePoolTest {
+
+  @TempDir Path tempDir;
+
+  /** Tests that boards are taken from the stock of their level in the order they were added. */
+  @Test
+  void testOfferAndPoll() {
+    PuzzlePool puzzlePool = new PuzzlePool(tempDir);
+    SudokuBoard first = Creator.generate(DifficultyLevel.EASY, 1L).toSudokuBoard();
+    SudokuBoard second = Creator.generate(DifficultyLevel.EASY, 2L).toSudokuBoard();
+    puzzlePool.offer(first);
+    puzzlePool.offer(second);
+
+    assertEquals(2, puzzlePool.size(DifficultyLevel.EASY));
+    assertEquals(0, puzzlePool.size(DifficultyLevel.HARD));
+    assertTrue(puzzlePool.poll(DifficultyLevel.HARD).isEmpty());
+    assertEquals(first, puzzlePool.poll(DifficultyLevel.EASY).orElseThrow());
+    assertEquals(second, puzzlePool.poll(DifficultyLevel.EASY).orElseThrow());
+    assertTrue(puzzlePool.poll(DifficultyLevel.EASY).isEmpty());
+  }
+
+  /** Tests that the stock survives a restart, without the boards that were taken. */
+  @Test
+  void testLoad() throws IOException {
+    PuzzlePool puzzlePool = new PuzzlePool(tempDir);
+    SudokuBoard taken = Creator.generate(DifficultyLevel.MEDIUM, 3L).toSudokuBoard();
+    SudokuBoard kept = Creator.generate(DifficultyLevel.MEDIUM, 4L).toSudokuBoard();
+    puzzlePool.offer(taken);
+    puzzlePool.offer(kept);
+    puzzlePool.poll(DifficultyLevel.MEDIUM);
+
+    PuzzlePool loadedPool = new PuzzlePool(tempDir);
+    loadedPool.load();
+
+    assertEquals(1, loadedPool.size(DifficultyLevel.MEDIUM));
+    SudokuBoard loaded = loadedPool.poll(DifficultyLevel.MEDIUM).orElseThrow();
+    assertArrayEquals(kept.unsolvedGrid(), loaded.unsolvedGrid());
+    assertArrayEquals(kept.solvedGrid(), loaded.solvedGrid());
+    assertEquals(DifficultyLevel.MEDIUM, loaded.difficultyLevel());
+  }
+
+  /**
+   * Tests that added boards are appended to the pool file, that taken boards stay in it until they
+   * make up more than half of it, and that the file is read back correctly in both states.
+   */
+  @Test
+  void testAppendAndCompact() throws IOException {
+    PuzzlePool puzzlePool = new PuzzlePool(tempDir);
+    Path file = tempDir.resolve("EASY.pool");
+    for (long seed = 5; seed <= 7; seed++) {
+      puzzlePool.offer(Creator.generate(DifficultyLevel.EASY, seed).toSudokuBoard());
+    }
+    long fullSize = Files.size(file);
+    SudokuBoard third = Creator.generate(DifficultyLevel.EASY, 7L).toSudokuBoard();
+
+    puzzlePool.poll(DifficultyLevel.EASY);
+    assertEquals(fullSize, Files.size(file));
+    PuzzlePool loadedPool = new PuzzlePool(tempDir);
+    loadedPool.load();
+    assertEquals(2, loadedPool.size(DifficultyLevel.EASY));
+
+    puzzlePool.poll(DifficultyLevel.EASY);
+    assertTrue(Files.size(file) < fullSize);
+    loadedPool = new PuzzlePool(tempDir);
+    loadedPool.load();
+    assertEquals(1, loadedPool.size(DifficultyLevel.EASY));
+    assertArrayEquals(
+        third.unsolvedGrid(), loadedPool.poll(DifficultyLevel.EASY).orElseThrow().unsolvedGrid());
+  }
+
+  /** Tests that loading a file that is not a pool file fails. */
+  @Test
+  void testLoadCorruptFile() throws IOException {
+    Files.write(tempDir.resolve("HARD.pool"), new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+
+    PuzzlePool puzzlePool = new PuzzlePool(tempDir);
+
+    assertThrows(IOException.class, puzzlePool::load);
+  }
+
+  /**
+   * Tests that the refiller stocks every level up to the capacity and then pauses, and that the
+   * boards of the levels do not share their solution.
+   */
+  @Test
+  void testRefill() throws InterruptedException {
+    PuzzlePool puzzlePool = new PuzzlePool(tempDir);
+    PoolRefiller poolRefiller = new PoolRefiller(puzzlePool, 1);
+    poolRefiller.resume();
+
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (!poolRefiller.isFull() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+
+    assertTrue(poolRefiller.isFull());
+    Set<String> solutions = new HashSet<>();
+    for (DifficultyLevel difficultyLevel : DifficultyLevel.values()) {
+      assertEquals(1, puzzlePool.size(difficultyLevel));
+      SudokuBoard sudokuBoard = puzzlePool.poll(difficultyLevel).orElseThrow();
+      assertEquals(difficultyLevel, sudokuBoard.difficultyLevel());
+      assertTrue(solutions.add(Arrays.deepToString(sudokuBoard.solvedGrid())));
+    }
+  }
+}
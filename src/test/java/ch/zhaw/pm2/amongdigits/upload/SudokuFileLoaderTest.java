@@ -23,6 +23,7 @@ import static org.mockito.Mockito.when;
 
 import ch.zhaw.pm2.amongdigits.ChallengeType;
 import ch.zhaw.pm2.amongdigits.SudokuBoard;
+import ch.zhaw.pm2.amongdigits.catalog.PuzzleFilter;
 import ch.zhaw.pm2.amongdigits.exception.InvalidFileFormatException;
 import ch.zhaw.pm2.amongdigits.exception.InvalidSudokuException;
 import ch.zhaw.pm2.amongdigits.utils.Solver;
@@ -32,6 +33,7 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -46,7 +48,9 @@ import org.mockito.MockedStatic;
 /** The unit test class for SudokuFileLoader. */
 class SudokuFileLoaderTest {
   private static final String BASE_NAME = "MessagesBundle";
-  private static final String UPLOADED_SUDOKU_NAME = "HARD_validUserSudoku_-2140424672.txt";
+  private static final String SHIPPED_SUDOKU_NAME = "HARD_Sudoku from Simon_1.txt";
+  private static final String UPLOADED_SUDOKU_NAME =
+      "HARD_newUserSudoku_4f9d30c493e4f244ef457b5fb9858d81.txt";
   private static final byte[][] EXPECTED_VALID_UNSOLVED_GRID = {
     {9, 0, 0, 0, 8, 0, 3, 0, 0},
     {0, 0, 0, 2, 5, 0, 7, 0, 0},
@@ -58,6 +62,17 @@ class SudokuFileLoaderTest {
     {0, 0, 1, 0, 0, 0, 0, 0, 3},
     {3, 0, 0, 0, 0, 0, 0, 0, 2}
   };
+  private static final byte[][] EXPECTED_NEW_UNSOLVED_GRID = {
+    {9, 0, 0, 0, 8, 0, 3, 0, 0},
+    {0, 0, 0, 2, 5, 0, 7, 0, 0},
+    {0, 2, 0, 3, 0, 0, 0, 0, 4},
+    {0, 9, 4, 0, 0, 0, 0, 0, 0},
+    {0, 0, 0, 7, 3, 0, 5, 6, 0},
+    {7, 0, 5, 0, 6, 0, 4, 0, 0},
+    {0, 0, 7, 8, 0, 3, 9, 0, 0},
+    {0, 0, 1, 0, 0, 0, 0, 0, 3},
+    {3, 8, 0, 0, 0, 0, 0, 0, 2}
+  };
   private static final byte[][] EXPECTED_VALID_SOLVED_GRID = {
     {9, 7, 6, 4, 8, 1, 3, 2, 5},
     {1, 4, 3, 2, 5, 9, 7, 8, 6},
@@ -229,12 +244,12 @@ class SudokuFileLoaderTest {
       List<Matrix> solution = new ArrayList<>();
       solution.add(sudokuManager);
       solver.when(() -> Solver.solve(any(Matrix.class))).thenReturn(solution);
-      sudokuFileLoader.uploadSudoku(getInputFile("validUserSudoku"));
+      sudokuFileLoader.uploadSudoku(getInputFile("newUserSudoku"));
       final Optional<File> uploadedFile = getUploadedFile();
       assertTrue(uploadedFile.isPresent());
       final SudokuBoard board = sudokuFileLoader.loadSudokuFile(uploadedFile.get(), true);
       assertNotNull(board);
-      assertArrayEquals(EXPECTED_VALID_UNSOLVED_GRID, board.unsolvedGrid());
+      assertArrayEquals(EXPECTED_NEW_UNSOLVED_GRID, board.unsolvedGrid());
       assertArrayEquals(EXPECTED_VALID_SOLVED_GRID, board.solvedGrid());
     } finally {
       deleteUploadedFileIfPresent();
@@ -300,11 +315,40 @@ class SudokuFileLoaderTest {
       List<Matrix> solution = new ArrayList<>();
       solution.add(sudokuManager);
       solver.when(() -> Solver.solve(any(Matrix.class))).thenReturn(solution);
-      sudokuFileLoader.uploadSudoku(getInputFile("validUserSudoku"));
+      sudokuFileLoader.uploadSudoku(getInputFile("newUserSudoku"));
       final InvalidSudokuException exception =
           assertThrows(
               InvalidSudokuException.class,
-              () -> sudokuFileLoader.uploadSudoku(getInputFile("validUserSudoku")));
+              () -> sudokuFileLoader.uploadSudoku(getInputFile("newUserSudoku")));
+      assertEquals(
+          format(bundle.getString("sudoku_exists_exception"), UPLOADED_SUDOKU_NAME),
+          exception.getMessage());
+    } finally {
+      deleteUploadedFileIfPresent();
+    }
+  }
+
+  /**
+   * Tests that uploading a copy of an uploaded Sudoku with relabeled digits throws an
+   * InvalidSudokuException naming the file of the uploaded Sudoku.
+   */
+  @Test
+  void testUploadRelabeledDuplicateFile()
+      throws IOException, InvalidFileFormatException, InvalidSudokuException {
+    when(fileValidator.isNonZeroDigit(not(eq(EMPTY_GRID_CELL)))).thenReturn(true);
+    when(fileValidator.isMatchingGridSize(anyList())).thenReturn(true);
+
+    try (final MockedStatic<Solver> solver = mockStatic(Solver.class)) {
+      final SudokuManager sudokuManager = new SudokuManager(SCHEMA_9X9);
+      sudokuManager.setAll(EXPECTED_VALID_SOLVED_GRID);
+      List<Matrix> solution = new ArrayList<>();
+      solution.add(sudokuManager);
+      solver.when(() -> Solver.solve(any(Matrix.class))).thenReturn(solution);
+      sudokuFileLoader.uploadSudoku(getInputFile("newUserSudoku"));
+      final InvalidSudokuException exception =
+          assertThrows(
+              InvalidSudokuException.class,
+              () -> sudokuFileLoader.uploadSudoku(getInputFile("relabeledUserSudoku")));
       assertEquals(
           format(bundle.getString("sudoku_exists_exception"), UPLOADED_SUDOKU_NAME),
           exception.getMessage());
@@ -313,6 +357,33 @@ class SudokuFileLoaderTest {
     }
   }
 
+  /**
+   * Tests that uploading a Sudoku that was shipped as a user challenge, before file names ended
+   * with the content hash, throws an InvalidSudokuException naming the shipped file.
+   */
+  @Test
+  void testUploadShippedDuplicateFile() throws IOException {
+    when(fileValidator.isNonZeroDigit(not(eq(EMPTY_GRID_CELL)))).thenReturn(true);
+    when(fileValidator.isMatchingGridSize(anyList())).thenReturn(true);
+
+    try (final MockedStatic<Solver> solver = mockStatic(Solver.class)) {
+      final SudokuManager sudokuManager = new SudokuManager(SCHEMA_9X9);
+      sudokuManager.setAll(EXPECTED_VALID_SOLVED_GRID);
+      List<Matrix> solution = new ArrayList<>();
+      solution.add(sudokuManager);
+      solver.when(() -> Solver.solve(any(Matrix.class))).thenReturn(solution);
+      final InvalidSudokuException exception =
+          assertThrows(
+              InvalidSudokuException.class,
+              () -> sudokuFileLoader.uploadSudoku(getInputFile("validUserSudoku")));
+      assertEquals(
+          format(bundle.getString("sudoku_exists_exception"), SHIPPED_SUDOKU_NAME),
+          exception.getMessage());
+    } finally {
+      deleteUploadedFileIfPresent();
+    }
+  }
+
   private File getInputFile(final String fileName) {
     return new File(
         requireNonNull(getClass().getResource(format("/upload/%s.txt", fileName))).getFile());
@@ -335,5 +406,17 @@ class SudokuFileLoaderTest {
     if (uploadedFile.isPresent()) {
       Files.delete(uploadedFile.get().toPath());
     }
+    // The index and the filter still hold the deleted upload, they are rebuilt on the next upload.
+    final Path uploadDirectory =
+        Path.of(
+            requireNonNull(
+                    getClass()
+                        .getClassLoader()
+                        .getResource(ChallengeType.USER_GENERATED.getDirectory()))
+                .getFile());
+    for (String fileEnding : List.of(UploadIndex.FILE_ENDING, PuzzleFilter.FILE_ENDING)) {
+      Files.deleteIfExists(
+          uploadDirectory.resolveSibling(uploadDirectory.getFileName() + fileEnding));
+    }
   }
 }
@@ -0,0 +1,54 @@
+package ch.zhaw.pm2.amongdigits.upload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.zhaw.pm2.amongdigits.DifficultyLevel;
+import ch.zhaw.pm2.amongdigits.SudokuBoard;
+import ch.zhaw.pm2.amongdigits.utils.Creator;
+import ch.zhaw.pm2.amongdigits.utils.GridTransformer;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** The unit test class for UploadIndex. */
+class UploadIndexTest {
+
+  @TempDir Path tempDir;
+
+  /** Tests that transformed copies of a puzzle share their content hash and others do not. */
+  @Test
+  void testGetContentHash() {
+    SudokuBoard sudokuBoard = Creator.generate(DifficultyLevel.HARD, 1L).toSudokuBoard();
+    SudokuBoard transformedBoard = GridTransformer.transform(sudokuBoard, new SplittableRandom(2L));
+    SudokuBoard otherBoard = Creator.generate(DifficultyLevel.HARD, 3L).toSudokuBoard();
+
+    String contentHash = UploadIndex.getContentHash(sudokuBoard.unsolvedGrid());
+
+    assertTrue(contentHash.matches("[0-9a-f]{32}"));
+    assertEquals(contentHash, UploadIndex.getContentHash(transformedBoard.unsolvedGrid()));
+    assertNotEquals(contentHash, UploadIndex.getContentHash(otherBoard.unsolvedGrid()));
+  }
+
+  /** Tests that added puzzles are found, also after the index is opened again. */
+  @Test
+  void testPutAndFind() throws IOException {
+    Path file = tempDir.resolve("upload.index");
+    UploadIndex uploadIndex = new UploadIndex(file);
+    assertEquals(Optional.empty(), uploadIndex.find("a"));
+
+    uploadIndex.put("a", "EASY_First_a.txt");
+    uploadIndex.put("b", "HARD_Second_b.txt");
+    uploadIndex.put("a", "EASY_Third_a.txt");
+
+    assertEquals(Optional.of("EASY_Third_a.txt"), uploadIndex.find("a"));
+    UploadIndex reopenedIndex = new UploadIndex(file);
+    assertEquals(Optional.of("EASY_Third_a.txt"), reopenedIndex.find("a"));
+    assertEquals(Optional.of("HARD_Second_b.txt"), reopenedIndex.find("b"));
+    assertEquals(Optional.empty(), reopenedIndex.find("c"));
+  }
+}
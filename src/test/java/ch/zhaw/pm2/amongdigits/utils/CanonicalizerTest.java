@@ -0,0 +1,188 @@
+package ch.zhaw.pm2.amongdigits.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import ch.zhaw.pm2.amongdigits.DifficultyLevel;
+import ch.zhaw.pm2.amongdigits.SudokuBoard;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/** This class contains test cases for the Canonicalizer class. */
+class CanonicalizerTest {
+
+  private static final int TRANSFORMATIONS = 5;
+  private static final int[][] ORDERS = {
+    {0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}
+  };
+
+  /** Tests that all transformed copies of a puzzle have the same canonical form. */
+  @Test
+  void testCanonicalizeTransformed() {
+    SplittableRandom random = new SplittableRandom(6L);
+    for (DifficultyLevel difficultyLevel : DifficultyLevel.values()) {
+      SudokuBoard sudokuBoard = Creator.generate(difficultyLevel, 5L).toSudokuBoard();
+      byte[][] canonical = Canonicalizer.canonicalize(sudokuBoard.unsolvedGrid());
+
+      for (int i = 0; i < TRANSFORMATIONS; i++) {
+        SudokuBoard transformedBoard = GridTransformer.transform(sudokuBoard, random);
+        assertArrayEquals(canonical, Canonicalizer.canonicalize(transformedBoard.unsolvedGrid()));
+        assertEquals(
+            Canonicalizer.hash(sudokuBoard.unsolvedGrid()),
+            Canonicalizer.hash(transformedBoard.unsolvedGrid()));
+        assertArrayEquals(
+            Canonicalizer.canonicalize(sudokuBoard.solvedGrid()),
+            Canonicalizer.canonicalize(transformedBoard.solvedGrid()));
+      }
+    }
+  }
+
+  /**
+   * Tests that the canonical form keeps the number of givens, labels the first given as one and
+   * does not change when canonicalized again.
+   */
+  @Test
+  void testCanonicalFormIsMinimal() {
+    SudokuBoard sudokuBoard = Creator.generate(DifficultyLevel.HARD, 7L).toSudokuBoard();
+    byte[][] canonical = Canonicalizer.canonicalize(sudokuBoard.unsolvedGrid());
+
+    assertEquals(countGivens(sudokuBoard.unsolvedGrid()), countGivens(canonical));
+    assertArrayEquals(canonical, Canonicalizer.canonicalize(canonical));
+    assertEquals(1, getFirstGiven(canonical));
+  }
+
+  /**
+   * Tests that the canonical form is the smallest grid, read row by row, of all transformations
+   * of {@link GridTransformer} with every relabeling of the digits. For each of the 3,359,232 line
+   * permutations and transpositions, the smallest relabeling is the one that numbers the digits in
+   * the order they first appear.
+   */
+  @Test
+  void testCanonicalizeMatchesBruteForce() {
+    List<int[]> linePermutations = createLinePermutations();
+    for (long seed = 1; seed <= 3; seed++) {
+      byte[][] grid = Creator.generate(DifficultyLevel.EXPERT, seed).toSudokuBoard().unsolvedGrid();
+      byte[] smallest = null;
+      for (boolean transpose : new boolean[] {false, true}) {
+        for (int[] rows : linePermutations) {
+          for (int[] columns : linePermutations) {
+            byte[] candidate = relabel(grid, rows, columns, transpose, smallest);
+            if (candidate != null) {
+              smallest = candidate;
+            }
+          }
+        }
+      }
+
+      byte[][] canonical = Canonicalizer.canonicalize(grid);
+      byte[] flatCanonical = new byte[81];
+      for (int cell = 0; cell < flatCanonical.length; cell++) {
+        flatCanonical[cell] = canonical[cell / 9][cell % 9];
+      }
+      assertArrayEquals(smallest, flatCanonical);
+    }
+  }
+
+  /** Tests that different puzzles have different canonical forms. */
+  @Test
+  void testCanonicalizeDifferent() {
+    byte[][] first = Creator.generate(DifficultyLevel.MEDIUM, 1L).toSudokuBoard().unsolvedGrid();
+    byte[][] second = Creator.generate(DifficultyLevel.MEDIUM, 2L).toSudokuBoard().unsolvedGrid();
+
+    assertFalse(
+        Arrays.deepEquals(Canonicalizer.canonicalize(first), Canonicalizer.canonicalize(second)));
+    assertNotEquals(Canonicalizer.hash(first), Canonicalizer.hash(second));
+  }
+
+  /** Tests that grids that are not 9x9 or repeat a digit in a line are rejected. */
+  @Test
+  void testCanonicalizeInvalid() {
+    byte[][] repeated = new byte[9][9];
+    repeated[0][0] = 5;
+    repeated[0][8] = 5;
+
+    assertThrows(IllegalArgumentException.class, () -> Canonicalizer.canonicalize(new byte[4][4]));
+    assertThrows(IllegalArgumentException.class, () -> Canonicalizer.canonicalize(repeated));
+  }
+
+  /** Returns all permutations of the lines that keep the lines of a band within a band. */
+  private static List<int[]> createLinePermutations() {
+    List<int[]> permutations = new ArrayList<>();
+    for (int[] bands : ORDERS) {
+      for (int[] first : ORDERS) {
+        for (int[] second : ORDERS) {
+          for (int[] third : ORDERS) {
+            int[][] lines = {first, second, third};
+            int[] permutation = new int[9];
+            for (int band = 0; band < 3; band++) {
+              for (int line = 0; line < 3; line++) {
+                permutation[band * 3 + line] = bands[band] * 3 + lines[band][line];
+              }
+            }
+            permutations.add(permutation);
+          }
+        }
+      }
+    }
+    return permutations;
+  }
+
+  /**
+   * Returns the transformed grid with its digits numbered in the order they first appear, or null
+   * if it is not smaller than the given smallest grid so far.
+   */
+  private static byte[] relabel(
+      final byte[][] grid,
+      final int[] rows,
+      final int[] columns,
+      final boolean transpose,
+      final byte[] smallest) {
+    byte[] labels = new byte[10];
+    byte nextLabel = 1;
+    byte[] candidate = new byte[81];
+    int comparison = smallest == null ? -1 : 0;
+    for (int cell = 0; cell < candidate.length; cell++) {
+      int row = rows[cell / 9];
+      int column = columns[cell % 9];
+      byte value = transpose ? grid[column][row] : grid[row][column];
+      if (value != 0 && labels[value] == 0) {
+        labels[value] = nextLabel++;
+      }
+      candidate[cell] = labels[value];
+      if (comparison == 0) {
+        comparison = Byte.compare(candidate[cell], smallest[cell]);
+        if (comparison > 0) {
+          return null;
+        }
+      }
+    }
+    return comparison < 0 ? candidate : null;
+  }
+
+  private static int countGivens(final byte[][] grid) {
+    int count = 0;
+    for (byte[] row : grid) {
+      for (byte cell : row) {
+        count += cell != 0 ? 1 : 0;
+      }
+    }
+    return count;
+  }
+
+  private static int getFirstGiven(final byte[][] grid) {
+    for (byte[] row : grid) {
+      for (byte cell : row) {
+        if (cell != 0) {
+          return cell;
+        }
+      }
+    }
+    return 0;
+  }
+}
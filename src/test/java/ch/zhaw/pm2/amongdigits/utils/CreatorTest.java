@@ -1,20 +1,33 @@
 package ch.zhaw.pm2.amongdigits.utils;
 
 import static ch.zhaw.pm2.amongdigits.DifficultyLevel.BEGINNER;
+import static ch.zhaw.pm2.amongdigits.DifficultyLevel.EXPERT;
+import static ch.zhaw.pm2.amongdigits.DifficultyLevel.HARD;
+import static ch.zhaw.pm2.amongdigits.DifficultyLevel.MEDIUM;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import ch.zhaw.pm2.amongdigits.DifficultyLevel;
 import ch.zhaw.pm2.amongdigits.TestUtils;
+import ch.zhaw.pm2.amongdigits.utils.matrix.CachedMatrixManager;
 import ch.zhaw.pm2.amongdigits.utils.matrix.Matrix;
 import ch.zhaw.pm2.amongdigits.utils.schema.Schema;
 import ch.zhaw.pm2.amongdigits.utils.schema.SchemaTypes;
 import ch.zhaw.pm2.amongdigits.utils.sudoku.Sudoku;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 /** A test class for the {@link Creator} class. */
 class CreatorTest {
+  private static final int SYMMETRY_SEEDS = 8;
 
   /**
    * Test method for {@link Creator#getSetBitOffset(int, int)}. Tests the behavior of the method
@@ -182,6 +195,229 @@ class CreatorTest {
     assertEquals(1, results.size());
   }
 
+  /**
+   * Tests that two Sudoku puzzles created with the same difficulty level and seed are identical.
+   */
+  @Test
+  void testCreateSudokuWithSameSeed() {
+    Sudoku first = Creator.createSudoku(MEDIUM, 42L);
+    Sudoku second = Creator.createSudoku(MEDIUM, 42L);
+    assertArrayEquals(first.getAll(), second.getAll());
+  }
+
+  /** Tests that full Sudoku matrices created from equally seeded random streams are identical. */
+  @Test
+  void testCreateFullWithSameSeed() {
+    Matrix first = Creator.createFull(new SplittableRandom(7L));
+    Matrix second = Creator.createFull(new SplittableRandom(7L));
+    assertArrayEquals(first.getAll(), second.getAll());
+  }
+
+  /**
+   * Tests that a progressively created Sudoku puzzle is playable at once and is refined into the
+   * puzzle created in one go from the same seed, with the same solution.
+   */
+  @Test
+  void testCreateSudokuProgressively() {
+    ProgressiveSudoku progressiveSudoku =
+        Creator.createSudokuProgressively(EXPERT, 3L, Runnable::run);
+    GenerationResult result = progressiveSudoku.result();
+    GenerationResult refinedResult = progressiveSudoku.refinedResult().join();
+
+    List<Matrix> solutions = Solver.solve(result.sudoku(), 2);
+    assertEquals(1, solutions.size());
+    assertArrayEquals(solutions.get(0).getAll(), refinedResult.solution().getAll());
+    assertArrayEquals(
+        Creator.createSudoku(EXPERT, 3L).getAll(), refinedResult.sudoku().getAll());
+    assertTrue(refinedResult.clearedCount() > result.clearedCount());
+  }
+
+  /** Tests that a generation result holds the only solution of its puzzle and its statistics. */
+  @Test
+  void testGenerate() {
+    GenerationResult result = Creator.generate(MEDIUM, 5L);
+
+    List<Matrix> solutions = Solver.solve(result.sudoku(), 2);
+    assertEquals(1, solutions.size());
+    assertArrayEquals(solutions.get(0).getAll(), result.solution().getAll());
+    assertEquals(
+        SchemaTypes.SCHEMA_9X9.getTotalFields() - result.sudoku().getSetCount(),
+        result.clearedCount());
+    assertEquals(MEDIUM.getMaxNumbersToClear(), result.clearedCount());
+    assertTrue(result.isTargetReached());
+    assertEquals(5L, result.seed());
+  }
+
+  /**
+   * Tests that one pass yields a unique puzzle for every difficulty level, all with the same
+   * solution and each with the givens of the next harder level included.
+   */
+  @Test
+  void testGenerateAllLevels() {
+    Map<DifficultyLevel, GenerationResult> results = Creator.generateAllLevels(9L);
+    byte[][] solution = results.get(BEGINNER).solution().getAll();
+    GenerationResult previous = null;
+
+    for (DifficultyLevel difficultyLevel : DifficultyLevel.values()) {
+      GenerationResult result = results.get(difficultyLevel);
+      List<Matrix> solutions = Solver.solve(result.sudoku(), 2);
+      assertEquals(1, solutions.size());
+      assertArrayEquals(solution, solutions.get(0).getAll());
+      assertEquals(difficultyLevel, result.difficultyLevel());
+
+      if (previous != null) {
+        assertTrue(result.clearedCount() >= previous.clearedCount());
+        for (int row = 0; row < solution.length; row++) {
+          for (int column = 0; column < solution.length; column++) {
+            if (result.sudoku().get(row, column) != 0) {
+              assertEquals(result.sudoku().get(row, column), previous.sudoku().get(row, column));
+            }
+          }
+        }
+      }
+      previous = result;
+    }
+
+    assertTrue(results.get(MEDIUM).isTargetReached());
+  }
+
+  /**
+   * Tests that the low clue search reaches a target that random clearing reaches as well, and that
+   * it returns a unique puzzle of its full matrix when the budget runs out before the target.
+   */
+  @Test
+  void testGenerateLowClue() {
+    GenerationResult mediumResult = Creator.generateLowClue(MEDIUM, 2L, Duration.ofSeconds(5));
+    assertTrue(mediumResult.isTargetReached());
+    assertEquals(MEDIUM.getMaxNumbersToClear(), mediumResult.clearedCount());
+
+    GenerationResult expertResult = Creator.generateLowClue(EXPERT, 2L, Duration.ofMillis(50));
+    List<Matrix> solutions = Solver.solve(expertResult.sudoku(), 2);
+    assertEquals(1, solutions.size());
+    assertArrayEquals(solutions.get(0).getAll(), expertResult.solution().getAll());
+    assertEquals(
+        SchemaTypes.SCHEMA_9X9.getTotalFields() - expertResult.sudoku().getSetCount(),
+        expertResult.clearedCount());
+    assertEquals(
+        expertResult.clearedCount() >= EXPERT.getMaxNumbersToClear(),
+        expertResult.isTargetReached());
+  }
+
+  /**
+   * Tests that the low clue search returns shortly after its budget, also when a single descent
+   * would take longer, and still with a unique puzzle.
+   */
+  @Test
+  void testGenerateLowClueWithinBudget() {
+    for (long seed = 0; seed < 5; seed++) {
+      final long lowClueSeed = seed;
+      GenerationResult result =
+          assertTimeoutPreemptively(
+              Duration.ofSeconds(1),
+              () -> Creator.generateLowClue(EXPERT, lowClueSeed, Duration.ofMillis(100)));
+      assertEquals(1, Solver.solve(result.sudoku(), 2).size());
+    }
+    GenerationResult zeroBudgetResult = Creator.generateLowClue(EXPERT, 1L, Duration.ZERO);
+    assertEquals(1, Solver.solve(zeroBudgetResult.sudoku(), 2).size());
+  }
+
+  /** Tests the first elements of the Luby sequence used to cut off full matrix attempts. */
+  @Test
+  void testLuby() {
+    int[] expected = {1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, 1};
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], Creator.luby(i + 1));
+    }
+  }
+
+  /**
+   * Tests that creating a Sudoku puzzle with parallel clearability checks yields the same puzzle as
+   * the sequential sweep for the same seed.
+   */
+  @Test
+  void testCreateSudokuInParallel() {
+    for (long seed = 0; seed < 5; seed++) {
+      Sudoku sequential = Creator.createSudoku(EXPERT, seed, Symmetry.NONE, false);
+      Sudoku parallel = Creator.createSudoku(EXPERT, seed, Symmetry.NONE, true);
+      assertArrayEquals(sequential.getAll(), parallel.getAll());
+    }
+  }
+
+  /**
+   * Tests the creation of a minimal Sudoku puzzle and validates that it has only one solution and
+   * that clearing any of its remaining numbers leads to more than one solution.
+   */
+  @Test
+  void testCreateMinimalSudoku() {
+    Sudoku sudoku = Creator.createMinimalSudoku(42L);
+    Schema schema = sudoku.getSchema();
+    assertEquals(1, Solver.solve(sudoku, 2).size());
+    for (int i = 0; i < schema.getWidth(); i++) {
+      for (int j = 0; j < schema.getWidth(); j++) {
+        byte value = sudoku.get(i, j);
+        if (value != schema.getUnsetValue()) {
+          sudoku.set(i, j, schema.getUnsetValue());
+          assertEquals(2, Solver.solve(sudoku, 2).size());
+          sudoku.set(i, j, value);
+        }
+      }
+    }
+  }
+
+  /**
+   * Tests the creation of Sudoku puzzles with a symmetric clue pattern for several seeds and every
+   * difficulty level and validates that the creation ends, that every orbit of the symmetry is
+   * either fully set or fully cleared and that each puzzle has only one solution.
+   */
+  @ParameterizedTest
+  @EnumSource(Symmetry.class)
+  void testCreateSudokuWithSymmetry(final Symmetry symmetry) {
+    for (DifficultyLevel difficultyLevel : DifficultyLevel.values()) {
+      for (long seed = 1; seed <= SYMMETRY_SEEDS; seed++) {
+        final long currentSeed = seed;
+        Sudoku sudoku =
+            assertTimeoutPreemptively(
+                Duration.ofSeconds(10),
+                () -> Creator.createSudoku(difficultyLevel, currentSeed, symmetry),
+                () -> difficultyLevel + " with seed " + currentSeed + " does not end");
+        Schema schema = sudoku.getSchema();
+        int width = schema.getWidth();
+        for (int i = 0; i < width; i++) {
+          for (int j = 0; j < width; j++) {
+            boolean unset = sudoku.get(i, j) == schema.getUnsetValue();
+            for (int cell : symmetry.getOrbit(i, j, width)) {
+              assertEquals(
+                  unset, sudoku.get(cell / width, cell % width) == schema.getUnsetValue());
+            }
+          }
+        }
+        assertEquals(1, Solver.solve(sudoku, 2).size());
+      }
+    }
+  }
+
+  /**
+   * Tests the generation of a rated Sudoku puzzle and validates that it has only one solution, the
+   * one returned with it, and that its rating lies within the rating band of the difficulty level.
+   */
+  @Test
+  void testGenerateRated() {
+    GenerationResult result = Creator.generateRated(HARD, 42L);
+    Sudoku sudoku = result.sudoku();
+    List<Matrix> results = Solver.solve(sudoku, 2);
+    assertEquals(1, results.size());
+    assertArrayEquals(results.get(0).getAll(), result.solution().getAll());
+    assertEquals(
+        SchemaTypes.SCHEMA_9X9.getTotalFields() - sudoku.getSetCount(), result.clearedCount());
+    assertEquals(42L, result.seed());
+
+    CachedMatrixManager puzzle = new CachedMatrixManager(sudoku.getSchema());
+    puzzle.setAll(sudoku.getAll());
+    int rating = new DifficultyRater(results.get(0)).rate(puzzle);
+    assertTrue(rating >= HARD.getMinRating());
+    assertTrue(rating <= HARD.getMaxRating());
+  }
+
   /**
    * Tests the creation of a byte array with a specified number of occurrences of each digit for a
    * given schema.
@@ -0,0 +1,58 @@
+package ch.zhaw.pm2.amongdigits.utils;
+
+import static ch.zhaw.pm2.amongdigits.utils.DifficultyRater.NAKED_SINGLE_EFFORT;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.zhaw.pm2.amongdigits.utils.matrix.CachedMatrixManager;
+import ch.zhaw.pm2.amongdigits.utils.matrix.Matrix;
+import ch.zhaw.pm2.amongdigits.utils.schema.Schema;
+import ch.zhaw.pm2.amongdigits.utils.schema.SchemaTypes;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/** This class contains test cases for the DifficultyRater class. */
+class DifficultyRaterTest {
+
+  private final Schema schema = SchemaTypes.SCHEMA_9X9;
+
+  /** Tests that a full matrix needs no effort to solve. */
+  @Test
+  void testRateWithFullMatrix() {
+    Matrix matrix = Creator.createFull(new SplittableRandom(1L));
+    CachedMatrixManager puzzle = new CachedMatrixManager(schema);
+    puzzle.setAll(matrix.getAll());
+
+    assertEquals(0, new DifficultyRater(matrix).rate(puzzle));
+  }
+
+  /** Tests that a matrix missing one value is rated as a single naked single. */
+  @Test
+  void testRateWithOneStep() {
+    Matrix matrix = Creator.createFull(new SplittableRandom(1L));
+    CachedMatrixManager puzzle = new CachedMatrixManager(schema);
+    puzzle.setAll(matrix.getAll());
+    puzzle.set(4, 4, schema.getUnsetValue());
+
+    assertEquals(NAKED_SINGLE_EFFORT, new DifficultyRater(matrix).rate(puzzle));
+  }
+
+  /**
+   * Tests that rating a puzzle leaves it unchanged and that every cleared cell costs at least the
+   * effort of a naked single.
+   */
+  @Test
+  void testRateLeavesPuzzleUnchanged() {
+    CachedMatrixManager puzzle = new CachedMatrixManager(schema);
+    puzzle.setAll(Creator.createMinimalSudoku(1L).getAll());
+    byte[][] before = Arrays.stream(puzzle.getAll()).map(byte[]::clone).toArray(byte[][]::new);
+
+    Matrix solution = Solver.solve(puzzle).get(0);
+    int rating = new DifficultyRater(solution).rate(puzzle);
+
+    assertArrayEquals(before, puzzle.getAll());
+    assertTrue(rating >= NAKED_SINGLE_EFFORT * (schema.getTotalFields() - puzzle.getSetCount()));
+  }
+}
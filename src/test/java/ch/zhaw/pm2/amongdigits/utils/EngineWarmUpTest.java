@@ -0,0 +1,23 @@
+package ch.zhaw.pm2.amongdigits.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/** This class contains test cases for the EngineWarmUp class. */
+class EngineWarmUpTest {
+
+  /** Tests that a warm-up started in the background finishes on a low-priority daemon thread. */
+  @Test
+  void testStart() throws InterruptedException {
+    Thread thread = EngineWarmUp.start();
+
+    assertNotEquals(EngineWarmUp.State.DISABLED, EngineWarmUp.getState());
+    assertTrue(thread.isDaemon());
+    assertEquals(Thread.MIN_PRIORITY, thread.getPriority());
+    thread.join();
+    assertEquals(EngineWarmUp.State.DONE, EngineWarmUp.getState());
+  }
+}
@@ -0,0 +1,46 @@
+package ch.zhaw.pm2.amongdigits.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.zhaw.pm2.amongdigits.DifficultyLevel;
+import ch.zhaw.pm2.amongdigits.SudokuBoard;
+import ch.zhaw.pm2.amongdigits.utils.matrix.Matrix;
+import ch.zhaw.pm2.amongdigits.utils.schema.SchemaTypes;
+import ch.zhaw.pm2.amongdigits.utils.sudoku.SudokuManager;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/** This class contains test cases for the GridTransformer class. */
+class GridTransformerTest {
+
+  /**
+   * Tests that a transformed board is a different valid puzzle with the same number of givens,
+   * whose only solution is the transformed solution.
+   */
+  @Test
+  void testTransform() {
+    SudokuBoard sudokuBoard = Creator.generate(DifficultyLevel.HARD, 4L).toSudokuBoard();
+    SudokuBoard transformedBoard = GridTransformer.transform(sudokuBoard, new SplittableRandom(8L));
+
+    SudokuManager solvedManager = new SudokuManager(SchemaTypes.SCHEMA_9X9);
+    solvedManager.setAll(transformedBoard.solvedGrid());
+    assertTrue(solvedManager.isValid());
+
+    SudokuManager unsolvedManager = new SudokuManager(SchemaTypes.SCHEMA_9X9);
+    unsolvedManager.setAll(sudokuBoard.unsolvedGrid());
+    int givens = unsolvedManager.getSetCount();
+    unsolvedManager.setAll(transformedBoard.unsolvedGrid());
+    assertEquals(givens, unsolvedManager.getSetCount());
+
+    List<Matrix> solutions = Solver.solve(unsolvedManager, 2);
+    assertEquals(1, solutions.size());
+    assertArrayEquals(transformedBoard.solvedGrid(), solutions.get(0).getAll());
+    assertEquals(sudokuBoard.difficultyLevel(), transformedBoard.difficultyLevel());
+    assertFalse(Arrays.deepEquals(sudokuBoard.unsolvedGrid(), transformedBoard.unsolvedGrid()));
+  }
+}
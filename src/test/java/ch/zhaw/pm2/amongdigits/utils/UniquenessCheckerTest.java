@@ -0,0 +1,58 @@
+package ch.zhaw.pm2.amongdigits.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.zhaw.pm2.amongdigits.DifficultyLevel;
+import ch.zhaw.pm2.amongdigits.utils.matrix.CachedMatrixManager;
+import ch.zhaw.pm2.amongdigits.utils.schema.Schema;
+import ch.zhaw.pm2.amongdigits.utils.schema.SchemaTypes;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/** This class contains test cases for the UniquenessChecker class. */
+class UniquenessCheckerTest {
+
+  private final Schema schema = SchemaTypes.SCHEMA_9X9;
+
+  /** Tests that every number of a full matrix can be cleared on its own. */
+  @Test
+  void testIsClearableWithFullMatrix() {
+    UniquenessChecker checker = new UniquenessChecker(Creator.createFull(new SplittableRandom(1L)));
+
+    for (int row = 0; row < schema.getWidth(); row++) {
+      for (int column = 0; column < schema.getWidth(); column++) {
+        assertTrue(checker.isClearable(row, column));
+      }
+    }
+  }
+
+  /**
+   * Tests that the logical pre-check agrees with a full search for every number of a puzzle and
+   * leaves the puzzle unchanged.
+   */
+  @Test
+  void testIsClearableAgreesWithSolver() {
+    UniquenessChecker checker =
+        new UniquenessChecker(Creator.createSudoku(DifficultyLevel.BEGINNER, 1L));
+    CachedMatrixManager puzzle = checker.getPuzzle();
+    byte[][] before = Arrays.stream(puzzle.getAll()).map(byte[]::clone).toArray(byte[][]::new);
+
+    for (int row = 0; row < schema.getWidth(); row++) {
+      for (int column = 0; column < schema.getWidth(); column++) {
+        if (checker.isSet(row, column)) {
+          byte value = puzzle.get(row, column);
+          puzzle.set(row, column, schema.getUnsetValue());
+          boolean unique = Solver.solve(puzzle, 2).size() == 1;
+          puzzle.set(row, column, value);
+
+          assertEquals(unique, checker.isClearable(row, column));
+        }
+      }
+    }
+
+    assertArrayEquals(before, puzzle.getAll());
+  }
+}
@@ -3,6 +3,7 @@ package ch.zhaw.pm2.amongdigits.utils.matrix;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import ch.zhaw.pm2.amongdigits.utils.schema.Schema;
@@ -268,4 +269,33 @@ class CachedMatrixManagerTest {
     set--;
     assertEquals(set, cachedMatrixManager.getSetCount());
   }
+
+  /** Tests that a bulk copy recomputes the free masks and the number of set cells. */
+  @Test
+  void testCopyFrom() {
+    CachedMatrixManager source = new CachedMatrixManager(SchemaTypes.SCHEMA_9X9);
+    source.setAll(PARTIALLY_FULL_MATRIX);
+    CachedMatrixManager target = new CachedMatrixManager(SchemaTypes.SCHEMA_9X9);
+    target.setAll(FULL_MATRIX);
+
+    target.copyFrom(source);
+
+    assertEquals(source.getSetCount(), target.getSetCount());
+    for (int row = 0; row < target.getSchema().getWidth(); row++) {
+      for (int column = 0; column < target.getSchema().getWidth(); column++) {
+        assertEquals(source.getFreeMask(row, column), target.getFreeMask(row, column));
+      }
+    }
+  }
+
+  /** Tests that setting values that appear twice in a row is rejected. */
+  @Test
+  void testSetAllWithDuplicate() {
+    CachedMatrixManager cachedMatrixManager = new CachedMatrixManager(SchemaTypes.SCHEMA_9X9);
+    byte[][] values = new byte[9][9];
+    values[4][0] = 7;
+    values[4][8] = 7;
+
+    assertThrows(IllegalArgumentException.class, () -> cachedMatrixManager.setAll(values));
+  }
 }
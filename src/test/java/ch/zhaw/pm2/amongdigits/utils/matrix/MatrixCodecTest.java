@@ -0,0 +1,53 @@
+package ch.zhaw.pm2.amongdigits.utils.matrix;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import ch.zhaw.pm2.amongdigits.DifficultyLevel;
+import ch.zhaw.pm2.amongdigits.SudokuBoard;
+import ch.zhaw.pm2.amongdigits.utils.Creator;
+import ch.zhaw.pm2.amongdigits.utils.schema.SchemaTypes;
+import org.junit.jupiter.api.Test;
+
+/** A test class for the {@link MatrixCodec} class. */
+class MatrixCodecTest {
+
+  /** Tests that a packed grid takes 41 bytes and unpacks to the same matrix. */
+  @Test
+  void testEncodeAndDecode() {
+    Matrix sudoku = Creator.createSudoku(DifficultyLevel.MEDIUM, 7L);
+
+    byte[] packed = MatrixCodec.encode(sudoku);
+    MatrixManager decoded = new MatrixManager(SchemaTypes.SCHEMA_9X9);
+    MatrixCodec.decode(packed, decoded);
+
+    assertEquals(41, packed.length);
+    assertEquals(sudoku, decoded);
+  }
+
+  /** Tests that board records with and without checksum unpack to the same board. */
+  @Test
+  void testEncodeAndDecodeBoard() {
+    SudokuBoard sudokuBoard = Creator.generate(DifficultyLevel.HARD, 3L).toSudokuBoard();
+
+    for (boolean withChecksum : new boolean[] {false, true}) {
+      byte[] records = new byte[3 * MatrixCodec.getBoardRecordBytes(withChecksum)];
+      int offset = MatrixCodec.getBoardRecordBytes(withChecksum);
+      MatrixCodec.encodeBoard(sudokuBoard, records, offset, withChecksum);
+
+      assertEquals(sudokuBoard, MatrixCodec.decodeBoard(records, offset, withChecksum));
+    }
+    assertEquals(53, MatrixCodec.getBoardRecordBytes(false));
+    assertEquals(57, MatrixCodec.getBoardRecordBytes(true));
+  }
+
+  /** Tests that a damaged record is detected by its checksum. */
+  @Test
+  void testDecodeBoardWithWrongChecksum() {
+    SudokuBoard sudokuBoard = Creator.generate(DifficultyLevel.EASY, 5L).toSudokuBoard();
+    byte[] record = MatrixCodec.encodeBoard(sudokuBoard, true);
+    record[10] ^= 0x01;
+
+    assertThrows(IllegalArgumentException.class, () -> MatrixCodec.decodeBoard(record, 0, true));
+  }
+}
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import ch.zhaw.pm2.amongdigits.TestUtils;
@@ -778,4 +779,52 @@ class MatrixManagerTest {
     assertEquals(2, min[0]);
     assertEquals(2, min[1]);
   }
+
+  /** Tests that getAll returns a deep copy, so changing a row does not change the matrix. */
+  @Test
+  void testGetAllIsDeepCopy() {
+    MatrixManager matrixManager = new MatrixManager(schema);
+    matrixManager.setAll(FULL_MATRIX);
+    byte[][] result = matrixManager.getAll();
+    result[0][0] = 0;
+    assertEquals(FULL_MATRIX[0][0], matrixManager.get(0, 0));
+  }
+
+  /** Tests that cells addressed by their index match the cells addressed by row and column. */
+  @Test
+  void testGetAndSetByCell() {
+    MatrixManager matrixManager = new MatrixManager(schema);
+    matrixManager.setAll(FULL_MATRIX);
+    int width = schema.getWidth();
+    for (int cell = 0; cell < schema.getTotalFields(); cell++) {
+      assertEquals(FULL_MATRIX[cell / width][cell % width], matrixManager.get(cell));
+    }
+
+    matrixManager.set(width + 2, (byte) 0);
+    assertEquals(0, matrixManager.get(1, 2));
+    assertThrows(IllegalArgumentException.class, () -> matrixManager.get(-1));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> matrixManager.set(schema.getTotalFields(), (byte) 1));
+  }
+
+  /** Tests that copyFrom and copyInto copy all values between matrices and flat arrays. */
+  @Test
+  void testCopyFromAndCopyInto() {
+    MatrixManager source = new MatrixManager(schema);
+    source.setAll(PARTIALLY_FULL_MATRIX);
+    MatrixManager target = new MatrixManager(schema);
+    target.setAll(FULL_MATRIX);
+
+    target.copyFrom(source);
+    assertEquals(source, target);
+    assertNotSame(source.getAll(), target.getAll());
+
+    byte[] values = new byte[schema.getTotalFields()];
+    target.copyInto(values);
+    MatrixManager copy = new MatrixManager(schema);
+    copy.copyFrom(values);
+    assertArrayEquals(PARTIALLY_FULL_MATRIX, copy.getAll());
+    assertThrows(IllegalArgumentException.class, () -> copy.copyFrom(new byte[1]));
+  }
 }
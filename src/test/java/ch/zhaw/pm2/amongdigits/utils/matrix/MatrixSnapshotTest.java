@@ -0,0 +1,100 @@
+package ch.zhaw.pm2.amongdigits.utils.matrix;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.zhaw.pm2.amongdigits.utils.schema.Schema;
+import ch.zhaw.pm2.amongdigits.utils.schema.SchemaTypes;
+import org.junit.jupiter.api.Test;
+
+/** A test class for the {@link MatrixSnapshot} class. */
+class MatrixSnapshotTest {
+
+  private static final byte[][] PARTIALLY_FULL_MATRIX = {
+    {3, 5, 9, 1, 6, 2, 4, 8, 7},
+    {4, 1, 2, 8, 3, 7, 6, 5, 9},
+    {6, 8, 7, 5, 9, 4, 1, 2, 3},
+    {0, 0, 0, 0, 0, 0, 0, 0, 0},
+    {0, 0, 0, 0, 0, 0, 0, 0, 0},
+    {0, 0, 0, 0, 0, 0, 0, 0, 0},
+    {0, 0, 0, 0, 0, 0, 0, 0, 0},
+    {0, 0, 0, 0, 0, 0, 0, 0, 0},
+    {0, 0, 0, 0, 0, 0, 0, 0, 0}
+  };
+
+  private final Schema schema = SchemaTypes.SCHEMA_9X9;
+
+  /** Tests that a snapshot keeps its values when the matrix it was taken from changes. */
+  @Test
+  void testSnapshotIsUnaffectedByMatrix() {
+    MatrixManager matrixManager = new MatrixManager(schema);
+    matrixManager.setAll(PARTIALLY_FULL_MATRIX);
+    MatrixSnapshot snapshot = matrixManager.snapshot();
+
+    matrixManager.set(3, 0, (byte) 8);
+    matrixManager.clear();
+
+    assertArrayEquals(PARTIALLY_FULL_MATRIX, snapshot.getAll());
+    assertEquals(27, snapshot.getSetCount());
+    assertEquals(0, matrixManager.getSetCount());
+  }
+
+  /** Tests that a matrix adopting a snapshot copies the values on its first change. */
+  @Test
+  void testCopyOnFirstChange() {
+    MatrixManager source = new MatrixManager(schema);
+    source.setAll(PARTIALLY_FULL_MATRIX);
+    MatrixSnapshot snapshot = source.snapshot();
+    MatrixManager first = new MatrixManager(schema);
+    MatrixManager second = new MatrixManager(schema);
+    first.copyFrom(snapshot);
+    second.copyFrom(snapshot);
+
+    first.set(3, 0, (byte) 8);
+
+    assertEquals(8, first.get(3, 0));
+    assertEquals(0, second.get(3, 0));
+    assertEquals(0, snapshot.get(3, 0));
+    assertEquals(0, source.get(3, 0));
+  }
+
+  /** Tests that a cached matrix adopting a snapshot refreshes its cache. */
+  @Test
+  void testCachedMatrixAdoptsSnapshot() {
+    MatrixManager source = new MatrixManager(schema);
+    source.setAll(PARTIALLY_FULL_MATRIX);
+    CachedMatrixManager cachedMatrixManager = new CachedMatrixManager(schema);
+    cachedMatrixManager.copyFrom(source.snapshot());
+
+    assertEquals(27, cachedMatrixManager.getSetCount());
+    assertTrue(cachedMatrixManager.isSetPossible(3, 0, (byte) 8));
+    assertFalse(cachedMatrixManager.isSetPossible(3, 0, (byte) 3));
+  }
+
+  /** Tests that all write operations of a snapshot are rejected. */
+  @Test
+  void testSnapshotIsReadOnly() {
+    MatrixSnapshot snapshot = new MatrixManager(schema).snapshot();
+
+    assertThrows(UnsupportedOperationException.class, snapshot::clear);
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.set(0, 0, (byte) 1));
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.set(0, (byte) 1));
+    assertThrows(
+        UnsupportedOperationException.class, () -> snapshot.setAll(PARTIALLY_FULL_MATRIX));
+  }
+
+  /** Tests that snapshots of equal values are equal. */
+  @Test
+  void testEquals() {
+    MatrixManager first = new MatrixManager(schema);
+    MatrixManager second = new MatrixManager(schema);
+    first.setAll(PARTIALLY_FULL_MATRIX);
+    second.setAll(PARTIALLY_FULL_MATRIX);
+
+    assertEquals(first.snapshot(), second.snapshot());
+    assertEquals(first.snapshot().hashCode(), second.snapshot().hashCode());
+  }
+}
@@ -0,0 +1,74 @@
+package ch.zhaw.pm2.amongdigits.utils.sudoku;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.zhaw.pm2.amongdigits.DifficultyLevel;
+import ch.zhaw.pm2.amongdigits.SudokuBoard;
+import ch.zhaw.pm2.amongdigits.utils.Creator;
+import ch.zhaw.pm2.amongdigits.utils.matrix.Matrix;
+import org.junit.jupiter.api.Test;
+
+/** A test class for the {@link CompactSudokuBoard} class. */
+class CompactSudokuBoardTest {
+
+  private final SudokuBoard sudokuBoard =
+      Creator.generate(DifficultyLevel.EXPERT, 11L).toSudokuBoard();
+
+  /** Tests that a compacted board converts back to an equal board. */
+  @Test
+  void testToSudokuBoard() {
+    CompactSudokuBoard compactSudokuBoard = CompactSudokuBoard.of(sudokuBoard);
+
+    assertEquals(sudokuBoard, compactSudokuBoard.toSudokuBoard());
+    assertEquals(CompactSudokuBoard.of(sudokuBoard), compactSudokuBoard);
+    assertEquals(DifficultyLevel.EXPERT, compactSudokuBoard.getDifficultyLevel());
+  }
+
+  /** Tests that the views read the puzzle and the solution of the board. */
+  @Test
+  void testViews() {
+    CompactSudokuBoard compactSudokuBoard = CompactSudokuBoard.of(sudokuBoard);
+    Sudoku puzzle = compactSudokuBoard.puzzleView();
+    Matrix solution = compactSudokuBoard.solutionView();
+
+    assertArrayEquals(sudokuBoard.unsolvedGrid(), puzzle.getAll());
+    assertArrayEquals(sudokuBoard.solvedGrid(), solution.getAll());
+    int givens = 0;
+    for (int cell = 0; cell < 81; cell++) {
+      byte given = sudokuBoard.unsolvedGrid()[cell / 9][cell % 9];
+      assertEquals(given, puzzle.get(cell));
+      assertEquals(given != 0, compactSudokuBoard.isGiven(cell));
+      givens += given != 0 ? 1 : 0;
+    }
+    assertEquals(givens, puzzle.getSetCount());
+    assertEquals(81, solution.getSetCount());
+    assertTrue(puzzle.isValid());
+    assertTrue(solution.isValid());
+  }
+
+  /** Tests that the views cannot be changed. */
+  @Test
+  void testViewsAreReadOnly() {
+    Sudoku puzzle = CompactSudokuBoard.of(sudokuBoard).puzzleView();
+
+    assertThrows(UnsupportedOperationException.class, () -> puzzle.set(0, 0, (byte) 1));
+    assertThrows(UnsupportedOperationException.class, () -> puzzle.set(0, (byte) 1));
+    assertThrows(UnsupportedOperationException.class, puzzle::clear);
+    assertThrows(UnsupportedOperationException.class, () -> puzzle.setWritable(0, 0, true));
+  }
+
+  /** Tests that a board whose givens differ from its solution is rejected. */
+  @Test
+  void testOfWithWrongGiven() {
+    byte[][] unsolvedGrid = sudokuBoard.solvedGrid().clone();
+    unsolvedGrid[0] = unsolvedGrid[0].clone();
+    unsolvedGrid[0][0] = (byte) (unsolvedGrid[0][0] % 9 + 1);
+    SudokuBoard wrongBoard =
+        new SudokuBoard(unsolvedGrid, sudokuBoard.solvedGrid(), DifficultyLevel.EXPERT);
+
+    assertThrows(IllegalArgumentException.class, () -> CompactSudokuBoard.of(wrongBoard));
+  }
+}